@@ -0,0 +1,33 @@
+package com.hrms.hrmsbackend.config;
+
+import com.hrms.hrmsbackend.realtime.MessageSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import java.util.List;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final MessageSocketHandler messageSocketHandler;
+    private final CorsConfigurationSource corsConfigurationSource;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Same origins as the REST API
+        CorsConfiguration cors = ((UrlBasedCorsConfigurationSource) corsConfigurationSource)
+                .getCorsConfigurations().get("/**");
+        List<String> origins = cors != null && cors.getAllowedOrigins() != null ? cors.getAllowedOrigins()
+                : List.of();
+        registry.addHandler(messageSocketHandler, "/ws/messages")
+                .setAllowedOrigins(origins.toArray(String[]::new));
+    }
+}
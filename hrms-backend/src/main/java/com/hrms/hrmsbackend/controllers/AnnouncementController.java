@@ -1,12 +1,22 @@
 package com.hrms.hrmsbackend.controllers;
 
 import com.hrms.hrmsbackend.dtos.CoreDtos.AnnouncementDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.DepartmentUnreadDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.ReadReceiptSummaryDto;
+import com.hrms.hrmsbackend.services.AnnouncementReceiptService;
 import com.hrms.hrmsbackend.services.AnnouncementService;
+import com.hrms.hrmsbackend.services.AnnouncementService.FeedSnapshot;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/announcements")
@@ -14,10 +24,32 @@ import java.util.List;
 public class AnnouncementController {
 
     private final AnnouncementService announcementService;
+    private final AnnouncementReceiptService receiptService;
 
+    // Served from the pre-serialized snapshot: gzipped bytes when the client accepts them, 304 when unchanged
     @GetMapping
-    public ResponseEntity<List<AnnouncementDto>> getAllAnnouncements() {
-        return ResponseEntity.ok(announcementService.getAllAnnouncements());
+    public ResponseEntity<byte[]> getAllAnnouncements(WebRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        FeedSnapshot feed = announcementService.getFeed();
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String etag = gzip ? feed.gzipEtag() : feed.etag();
+
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(feed.gzipped());
+        }
+        return response.body(feed.json());
     }
 
     @PostMapping
@@ -27,6 +59,27 @@ public class AnnouncementController {
         return ResponseEntity.ok(announcementService.createAnnouncement(dto, userId));
     }
 
+    @PostMapping("/{id}/read")
+    public ResponseEntity<Void> markRead(@PathVariable Long id, @RequestParam Long userId) {
+        receiptService.markRead(id, userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/receipts")
+    public ResponseEntity<ReadReceiptSummaryDto> getReceiptSummary(@PathVariable Long id) {
+        return ResponseEntity.ok(receiptService.summary(id));
+    }
+
+    @GetMapping("/{id}/receipts/{userId}")
+    public ResponseEntity<Map<String, Boolean>> hasRead(@PathVariable Long id, @PathVariable Long userId) {
+        return ResponseEntity.ok(Map.of("read", receiptService.hasRead(id, userId)));
+    }
+
+    @GetMapping("/{id}/receipts/unread-by-department")
+    public ResponseEntity<List<DepartmentUnreadDto>> getUnreadByDepartment(@PathVariable Long id) {
+        return ResponseEntity.ok(receiptService.unreadByDepartment(id));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAnnouncement(@PathVariable Long id) {
         announcementService.deleteAnnouncement(id);
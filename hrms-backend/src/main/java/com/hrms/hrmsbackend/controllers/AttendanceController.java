@@ -1,11 +1,16 @@
 package com.hrms.hrmsbackend.controllers;
 
+import com.hrms.hrmsbackend.dtos.CoreDtos.AttendanceBoardDto;
 import com.hrms.hrmsbackend.dtos.CoreDtos.AttendanceDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.DayCloseResultDto;
+import com.hrms.hrmsbackend.services.AttendanceBoardService;
+import com.hrms.hrmsbackend.services.AttendanceDayCloseService;
 import com.hrms.hrmsbackend.services.AttendanceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -14,6 +19,8 @@ import java.util.List;
 public class AttendanceController {
 
     private final AttendanceService attendanceService;
+    private final AttendanceBoardService attendanceBoardService;
+    private final AttendanceDayCloseService attendanceDayCloseService;
 
     @GetMapping
     public ResponseEntity<List<AttendanceDto>> getAllAttendance(@RequestParam(required = false) Long employeeId) {
@@ -23,6 +30,11 @@ public class AttendanceController {
         return ResponseEntity.ok(attendanceService.getAllAttendance());
     }
 
+    @GetMapping("/board")
+    public ResponseEntity<AttendanceBoardDto> getTodayBoard() {
+        return ResponseEntity.ok(attendanceBoardService.getBoard());
+    }
+
     @PostMapping("/check-in/{employeeId}")
     public ResponseEntity<?> checkIn(@PathVariable Long employeeId) {
         try {
@@ -38,6 +50,11 @@ public class AttendanceController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/day-close")
+    public ResponseEntity<DayCloseResultDto> closeDay(@RequestParam String date) {
+        return ResponseEntity.ok(attendanceDayCloseService.closeDay(LocalDate.parse(date)));
+    }
+
     @DeleteMapping("/reset")
     public ResponseEntity<Void> resetAttendance() {
         attendanceService.resetAttendance();
@@ -0,0 +1,48 @@
+package com.hrms.hrmsbackend.controllers;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.UploadCompleteDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.UploadInitDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.UploadSessionDto;
+import com.hrms.hrmsbackend.services.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/documents/uploads")
+@RequiredArgsConstructor
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    @PostMapping
+    public ResponseEntity<UploadSessionDto> initiate(@RequestBody UploadInitDto dto) {
+        return ResponseEntity.ok(chunkedUploadService.initiate(dto));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionDto> getStatus(@PathVariable String uploadId) {
+        return ResponseEntity.ok(chunkedUploadService.getStatus(uploadId));
+    }
+
+    @PutMapping(value = "/{uploadId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionDto> putChunk(@PathVariable String uploadId, @PathVariable int index,
+            @RequestHeader(value = "X-Chunk-Sha256", required = false) String sha256,
+            HttpServletRequest request) throws IOException {
+        // Read the body as a stream so chunks go to disk without being buffered in memory
+        try (InputStream in = request.getInputStream()) {
+            return ResponseEntity.ok(chunkedUploadService.putChunk(uploadId, index, sha256, in));
+        }
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<UploadSessionDto> complete(@PathVariable String uploadId,
+            @RequestBody(required = false) UploadCompleteDto dto) {
+        return ResponseEntity.ok(chunkedUploadService.complete(uploadId, dto));
+    }
+}
@@ -22,6 +22,7 @@ public class DebugController {
     private final UserRepository userRepository;
     private final AttendanceRepository attendanceRepository;
     private final com.hrms.hrmsbackend.repositories.DepartmentRepository departmentRepository;
+    private final com.hrms.hrmsbackend.services.AttendanceBoardService attendanceBoardService;
 
     @GetMapping("/info")
     public ResponseEntity<Map<String, Object>> getDebugInfo() {
@@ -35,11 +36,7 @@ public class DebugController {
         info.put("totalUsers", userRepository.count());
         info.put("totalAttendanceRecords", attendanceRepository.count());
 
-        long presentToday = attendanceRepository.findAll().stream()
-                .filter(a -> a.getDate().equals(LocalDate.now(zone))
-                        && a.getStatus() == com.hrms.hrmsbackend.models.enums.AttendanceStatus.PRESENT)
-                .count();
-        info.put("presentToday_Calculated", presentToday);
+        info.put("presentToday_Calculated", attendanceBoardService.countCheckedIn());
 
         // Show file upload path
         info.put("uploadDir", java.nio.file.Paths.get("uploads/avatars/").toAbsolutePath().toString());
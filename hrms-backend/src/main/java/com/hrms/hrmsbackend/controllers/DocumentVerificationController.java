@@ -0,0 +1,35 @@
+package com.hrms.hrmsbackend.controllers;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.DocumentDto;
+import com.hrms.hrmsbackend.services.DocumentVerificationQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/documents/verification")
+@RequiredArgsConstructor
+public class DocumentVerificationController {
+
+    private final DocumentVerificationQueue documentVerificationQueue;
+
+    @PostMapping("/claim")
+    public ResponseEntity<List<DocumentDto>> claim(@RequestParam Long reviewerId,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(documentVerificationQueue.claim(reviewerId, limit));
+    }
+
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<DocumentDto> complete(@PathVariable Long id, @RequestParam Long reviewerId,
+            @RequestParam(defaultValue = "VERIFIED") String decision) {
+        return ResponseEntity.ok(documentVerificationQueue.complete(id, reviewerId, decision));
+    }
+
+    @PostMapping("/{id}/release")
+    public ResponseEntity<Void> release(@PathVariable Long id, @RequestParam Long reviewerId) {
+        documentVerificationQueue.release(id, reviewerId);
+        return ResponseEntity.noContent().build();
+    }
+}
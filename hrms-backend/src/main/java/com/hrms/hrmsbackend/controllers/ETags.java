@@ -0,0 +1,32 @@
+package com.hrms.hrmsbackend.controllers;
+
+/**
+ * Entity versions as HTTP validators: responses carry the version as a strong
+ * ETag, and conditional updates send it back in If-Match.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + (version != null ? version : 0) + "\"";
+    }
+
+    /** The version pinned by an If-Match header, or null when absent or "*". */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.hrms.hrmsbackend.controllers;
+
+import com.hrms.hrmsbackend.services.FileDownloadService;
+import com.hrms.hrmsbackend.services.FileDownloadService.FileTarget;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Streams stored documents and avatars. Supports conditional requests
+ * (ETag / Last-Modified), single byte ranges with If-Range, and hands the
+ * body to Tomcat's sendfile when the connector offers it, falling back to
+ * FileChannel.transferTo otherwise.
+ */
+@RestController
+@RequestMapping("/api/files")
+@RequiredArgsConstructor
+public class FileDownloadController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final FileDownloadService fileDownloadService;
+
+    @GetMapping("/documents/{id}")
+    public void downloadDocument(@PathVariable Long id, @RequestParam(required = false) Long userId,
+            @RequestParam(value = "sig", required = false) String signature,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(fileDownloadService.resolveDocument(id, userId, signature), request, response);
+    }
+
+    @GetMapping("/avatars/{userId}")
+    public void downloadAvatar(@PathVariable Long userId, @RequestParam(value = "v", required = false) String version,
+            @RequestParam(required = false) Integer size, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        send(fileDownloadService.resolveAvatar(userId, version, size), request, response);
+    }
+
+    private void send(FileTarget target, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path path = target.getPath();
+        long size = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        String etag = target.getEtag() != null ? target.getEtag()
+                : "W/\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                target.isImmutable() ? "private, max-age=31536000, immutable" : "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return; // 304 (or 412 for a failed If-Match), validators already set
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(target.getContentType());
+        String fileName = target.getFileName();
+        ContentDisposition disposition = StandardCharsets.US_ASCII.newEncoder().canEncode(fileName)
+                ? ContentDisposition.inline().filename(fileName).build()
+                : ContentDisposition.inline().filename(fileName, StandardCharsets.UTF_8).build();
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+
+        long start = 0;
+        long end = size - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multi-range requests are answered with the whole file, which RFC 9110 allows
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                long rangeStart;
+                long rangeEnd;
+                try {
+                    rangeStart = range.getRangeStart(size);
+                    rangeEnd = range.getRangeEnd(size);
+                } catch (IllegalArgumentException e) {
+                    rangeStart = size;
+                    rangeEnd = size - 1;
+                }
+                if (rangeStart >= size || rangeEnd < rangeStart) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = rangeStart;
+                end = rangeEnd;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The connector writes the file straight from the page cache after this handler returns
+            request.setAttribute(SENDFILE_FILENAME, path.toFile().getCanonicalPath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // A range is only honoured if the client's copy is still the current one
+    private static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return !etag.startsWith("W/") && ifRange.equals(etag);
+        }
+        try {
+            long since = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant().toEpochMilli();
+            return lastModified / 1000 == since / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
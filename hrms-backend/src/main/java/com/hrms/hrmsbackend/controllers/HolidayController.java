@@ -0,0 +1,34 @@
+package com.hrms.hrmsbackend.controllers;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.HolidayDto;
+import com.hrms.hrmsbackend.services.HolidayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/holidays")
+@RequiredArgsConstructor
+public class HolidayController {
+
+    private final HolidayService holidayService;
+
+    @GetMapping
+    public ResponseEntity<List<HolidayDto>> getHolidays(@RequestParam int year) {
+        return ResponseEntity.ok(holidayService.getHolidays(year));
+    }
+
+    @PostMapping
+    public ResponseEntity<HolidayDto> saveHoliday(@RequestBody HolidayDto dto) {
+        return ResponseEntity.ok(holidayService.saveHoliday(dto));
+    }
+
+    @DeleteMapping("/{date}")
+    public ResponseEntity<Void> deleteHoliday(@PathVariable String date) {
+        holidayService.deleteHoliday(LocalDate.parse(date));
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,11 +1,15 @@
 package com.hrms.hrmsbackend.controllers;
 
+import com.hrms.hrmsbackend.dtos.CoreDtos.BulkLeaveDecisionDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.LeaveCalendarEntryDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.LeaveDecisionResultDto;
 import com.hrms.hrmsbackend.dtos.CoreDtos.LeaveDto;
 import com.hrms.hrmsbackend.services.LeaveService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -23,18 +27,37 @@ public class LeaveController {
         return ResponseEntity.ok(leaveService.getAllLeaves());
     }
 
+    @GetMapping("/calendar")
+    public ResponseEntity<List<LeaveCalendarEntryDto>> getTeamCalendar(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(defaultValue = "false") boolean includePending) {
+        return ResponseEntity.ok(leaveService.getTeamCalendar(LocalDate.parse(from), LocalDate.parse(to),
+                departmentId, includePending));
+    }
+
     @PostMapping
     public ResponseEntity<LeaveDto> createLeaveRequest(@RequestBody LeaveDto dto) {
         return ResponseEntity.ok(leaveService.createLeaveRequest(dto));
     }
 
     @PutMapping("/{id}/approve")
-    public ResponseEntity<LeaveDto> approveLeave(@PathVariable Long id, @RequestParam Long approvedBy) {
-        return ResponseEntity.ok(leaveService.updateStatus(id, "APPROVED", approvedBy));
+    public ResponseEntity<LeaveDto> approveLeave(@PathVariable Long id, @RequestParam Long approvedBy,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        LeaveDto updated = leaveService.updateStatus(id, "APPROVED", approvedBy, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
     }
 
     @PutMapping("/{id}/reject")
-    public ResponseEntity<LeaveDto> rejectLeave(@PathVariable Long id) {
-        return ResponseEntity.ok(leaveService.updateStatus(id, "REJECTED", null));
+    public ResponseEntity<LeaveDto> rejectLeave(@PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        LeaveDto updated = leaveService.updateStatus(id, "REJECTED", null, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
+    }
+
+    @PostMapping("/bulk-decision")
+    public ResponseEntity<List<LeaveDecisionResultDto>> decideBulk(@RequestBody BulkLeaveDecisionDto dto) {
+        return ResponseEntity.ok(leaveService.decideBulk(dto));
     }
 }
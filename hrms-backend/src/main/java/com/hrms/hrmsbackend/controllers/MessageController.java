@@ -1,6 +1,9 @@
 package com.hrms.hrmsbackend.controllers;
 
+import com.hrms.hrmsbackend.dtos.CoreDtos.ConversationDto;
 import com.hrms.hrmsbackend.dtos.CoreDtos.MessageDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.MessagePageDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.UnreadCountDto;
 import com.hrms.hrmsbackend.services.MessageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -20,14 +23,57 @@ public class MessageController {
         return ResponseEntity.ok(messageService.getAllMessages());
     }
 
+    @GetMapping("/inbox")
+    public ResponseEntity<MessagePageDto> getInbox(@RequestParam Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(messageService.getInbox(userId, cursor, size));
+    }
+
+    @GetMapping("/thread")
+    public ResponseEntity<MessagePageDto> getThread(@RequestParam Long userId, @RequestParam Long withUserId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(messageService.getThread(userId, withUserId, cursor, size));
+    }
+
+    @GetMapping("/conversations")
+    public ResponseEntity<List<ConversationDto>> getConversations(@RequestParam Long userId) {
+        return ResponseEntity.ok(messageService.getConversations(userId));
+    }
+
     @PostMapping
     public ResponseEntity<MessageDto> sendMessage(@RequestBody MessageDto dto) {
         return ResponseEntity.ok(messageService.sendMessage(dto));
     }
 
+    @GetMapping("/unread")
+    public ResponseEntity<UnreadCountDto> getUnreadCounts(@RequestParam Long userId) {
+        return ResponseEntity.ok(messageService.getUnreadCounts(userId));
+    }
+
+    @PutMapping("/conversations/{withUserId}/read")
+    public ResponseEntity<UnreadCountDto> markConversationRead(@PathVariable Long withUserId,
+            @RequestParam Long userId, @RequestParam(required = false) Long upToId) {
+        return ResponseEntity.ok(messageService.markConversationRead(userId, withUserId, upToId));
+    }
+
+    @GetMapping("/broadcasts")
+    public ResponseEntity<MessagePageDto> getBroadcasts(@RequestParam Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(messageService.getBroadcasts(userId, cursor, size));
+    }
+
+    @PutMapping("/broadcasts/read")
+    public ResponseEntity<UnreadCountDto> markBroadcastsRead(@RequestParam Long userId,
+            @RequestParam(required = false) Long upToId) {
+        return ResponseEntity.ok(messageService.markBroadcastsRead(userId, upToId));
+    }
+
     @PutMapping("/{id}/read")
-    public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
-        messageService.markAsRead(id);
+    public ResponseEntity<Void> markAsRead(@PathVariable Long id, @RequestParam(required = false) Long userId) {
+        messageService.markAsRead(id, userId);
         return ResponseEntity.ok().build();
     }
 }
@@ -1,11 +1,18 @@
 package com.hrms.hrmsbackend.controllers;
 
+import com.hrms.hrmsbackend.dtos.CoreDtos.BulkTaskResultDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.BulkTaskUpdateDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.TagCountDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.TaskBoardSummaryDto;
 import com.hrms.hrmsbackend.dtos.CoreDtos.TaskDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.TaskPageDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.TaskReassignDto;
 import com.hrms.hrmsbackend.services.TaskService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,18 +23,60 @@ public class TaskController {
     private final TaskService taskService;
 
     @GetMapping
-    public ResponseEntity<List<TaskDto>> getAllTasks() {
+    public ResponseEntity<List<TaskDto>> getAllTasks(
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(defaultValue = "all") String match) {
+        if (tags != null && !tags.isEmpty()) {
+            return ResponseEntity.ok(taskService.getTasksByTags(tags, !"any".equalsIgnoreCase(match)));
+        }
         return ResponseEntity.ok(taskService.getAllTasks());
     }
 
+    @GetMapping("/tags")
+    public ResponseEntity<List<TagCountDto>> getTagCloud() {
+        return ResponseEntity.ok(taskService.getTagCloud());
+    }
+
+    @GetMapping("/query")
+    public ResponseEntity<TaskPageDto> queryTasks(
+            @RequestParam(required = false) Long assignedTo,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String dueFrom,
+            @RequestParam(required = false) String dueTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(taskService.queryTasks(assignedTo, status, priority,
+                dueFrom != null ? LocalDate.parse(dueFrom) : null,
+                dueTo != null ? LocalDate.parse(dueTo) : null,
+                cursor, size));
+    }
+
+    @GetMapping("/board-summary")
+    public ResponseEntity<TaskBoardSummaryDto> getBoardSummary() {
+        return ResponseEntity.ok(taskService.getBoardSummary());
+    }
+
     @PostMapping
     public ResponseEntity<TaskDto> createTask(@RequestBody TaskDto dto) {
         return ResponseEntity.ok(taskService.createTask(dto));
     }
 
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkTaskResultDto> updateBulk(@RequestBody BulkTaskUpdateDto dto) {
+        return ResponseEntity.ok(taskService.updateBulk(dto));
+    }
+
+    @PostMapping("/reassign")
+    public ResponseEntity<BulkTaskResultDto> reassignOpenTasks(@RequestBody TaskReassignDto dto) {
+        return ResponseEntity.ok(taskService.reassignOpenTasks(dto));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<TaskDto> updateTask(@PathVariable Long id, @RequestBody TaskDto dto) {
-        return ResponseEntity.ok(taskService.updateTask(id, dto));
+    public ResponseEntity<TaskDto> updateTask(@PathVariable Long id, @RequestBody TaskDto dto,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        TaskDto updated = taskService.updateTask(id, dto, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
     }
 
     @DeleteMapping("/{id}")
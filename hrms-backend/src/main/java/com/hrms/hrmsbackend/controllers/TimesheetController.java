@@ -0,0 +1,42 @@
+package com.hrms.hrmsbackend.controllers;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.TimesheetDto;
+import com.hrms.hrmsbackend.services.TimesheetService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/api/timesheets")
+@RequiredArgsConstructor
+public class TimesheetController {
+
+    private final TimesheetService timesheetService;
+
+    @GetMapping("/{month}")
+    public ResponseEntity<TimesheetDto> getTimesheet(@PathVariable String month) {
+        return ResponseEntity.ok(timesheetService.getTimesheet(YearMonth.parse(month)));
+    }
+
+    @GetMapping("/{month}/csv")
+    public ResponseEntity<StreamingResponseBody> downloadCsv(@PathVariable String month) {
+        YearMonth yearMonth = YearMonth.parse(month);
+        TimesheetDto timesheet = timesheetService.getTimesheet(yearMonth);
+        StreamingResponseBody body = out -> timesheetService.writeCsv(timesheet,
+                new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"timesheet-" + yearMonth + ".csv\"")
+                .body(body);
+    }
+}
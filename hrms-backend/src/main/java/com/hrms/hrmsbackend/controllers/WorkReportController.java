@@ -1,11 +1,15 @@
 package com.hrms.hrmsbackend.controllers;
 
+import com.hrms.hrmsbackend.dtos.CoreDtos.WeeklyDigestDto;
 import com.hrms.hrmsbackend.dtos.CoreDtos.WorkReportDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.WorkReportPageDto;
+import com.hrms.hrmsbackend.services.WorkReportDigestService;
 import com.hrms.hrmsbackend.services.WorkReportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -14,12 +18,37 @@ import java.util.List;
 public class WorkReportController {
 
     private final WorkReportService workReportService;
+    private final WorkReportDigestService workReportDigestService;
 
+    // Superseded by /query; serves only the newest page of recent reports
+    @Deprecated
     @GetMapping
     public ResponseEntity<List<WorkReportDto>> getAllReports() {
         return ResponseEntity.ok(workReportService.getAllReports());
     }
 
+    @GetMapping("/query")
+    public ResponseEntity<WorkReportPageDto> queryReports(
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(workReportService.queryReports(employeeId,
+                from != null ? LocalDate.parse(from) : null,
+                to != null ? LocalDate.parse(to) : null,
+                cursor, size));
+    }
+
+    // Week defaults to the last finished one; any date inside the week selects it
+    @GetMapping("/digest")
+    public ResponseEntity<WeeklyDigestDto> getWeeklyDigest(
+            @RequestParam(required = false) String week,
+            @RequestParam(required = false) Long departmentId) {
+        return ResponseEntity.ok(workReportDigestService.getDigest(week != null ? LocalDate.parse(week) : null,
+                departmentId));
+    }
+
     @GetMapping("/employee/{id}")
     public ResponseEntity<List<WorkReportDto>> getReportsByEmployeeId(@PathVariable Long id) {
         return ResponseEntity.ok(workReportService.getReportsByEmployeeId(id));
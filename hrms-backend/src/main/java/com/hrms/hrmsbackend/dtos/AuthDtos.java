@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 public class AuthDtos {
 
     @Data
@@ -52,6 +54,7 @@ public class AuthDtos {
         private String email;
         private String role;
         private String avatar;
+        private Map<String, String> avatarRenditions; // edge length in px -> URL
         private String department;
         @com.fasterxml.jackson.annotation.JsonProperty("isFirstLogin")
         private boolean isFirstLogin;
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 public class CoreDtos {
 
@@ -64,6 +65,7 @@ public class CoreDtos {
         private Double salary;
         private String status;
         private String avatar;
+        private Map<String, String> avatarRenditions; // edge length in px -> URL
         private String manager;
         private String role;
     }
@@ -82,6 +84,71 @@ public class CoreDtos {
         private Double hoursWorked;
         private String status;
         private String notes;
+        private Long version;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class BoardEntryDto {
+        private String employeeId;
+        private String employeeName;
+        private String checkIn;
+        private String checkOut;
+        private String status;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class AttendanceBoardDto {
+        private String date;
+        private int presentCount;
+        private int lateCount;
+        private int absentCount;
+        private int checkedOutCount;
+        private List<BoardEntryDto> present;
+        private List<BoardEntryDto> late;
+        private List<BoardEntryDto> absent;
+        private List<BoardEntryDto> checkedOut;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DayCloseResultDto {
+        private String date;
+        private int autoCheckedOut;
+        private int markedOnLeave;
+        private int markedAbsent;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TimesheetRowDto {
+        private String employeeId;
+        private String employeeName;
+        private int daysPresent;
+        private int daysLate;
+        private int daysAbsent;
+        private double leaveDays;
+        private double hoursWorked;
+        private double overtimeHours;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TimesheetDto {
+        private String month; // YYYY-MM
+        private String generatedAt;
+        private List<TimesheetRowDto> rows;
     }
 
     @Data
@@ -100,6 +167,52 @@ public class CoreDtos {
         private String status;
         private String approvedBy;
         private String createdAt;
+        private Long version;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class BulkLeaveDecisionDto {
+        private List<Long> ids;
+        private String action; // APPROVE or REJECT
+        private Long approvedBy;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class LeaveDecisionResultDto {
+        private String id;
+        private String outcome; // approved, rejected, not_found, already_<status>
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class LeaveCalendarEntryDto {
+        private String leaveId;
+        private String employeeId;
+        private String employeeName;
+        private String departmentId;
+        private String type;
+        private String startDate;
+        private String endDate;
+        private String status;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class HolidayDto {
+        private String id;
+        private String date; // YYYY-MM-DD
+        private String name;
+        private String type; // 'National', 'Festival', 'Optional'
     }
 
     @Data
@@ -119,6 +232,78 @@ public class CoreDtos {
         private Integer progress;
         private String createdAt;
         private List<String> tags;
+        private Boolean overdue;
+        private Boolean dueSoon;
+        private Long version;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TaskPageDto {
+        private List<TaskDto> items;
+        private String nextCursor; // null on the last page
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class BulkTaskUpdateDto {
+        private List<Long> ids;
+        // Only non-null fields are applied
+        private String status;
+        private Integer progress;
+        private String priority;
+        private String assignedToId;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TaskReassignDto {
+        private Long fromUserId;
+        private Long toUserId;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class BulkTaskResultDto {
+        private int updated;
+        private List<String> notFound;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TagCountDto {
+        private String tag;
+        private int count;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TaskBoardCellDto {
+        private String status;
+        private String priority;
+        private long count;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TaskBoardSummaryDto {
+        private long total;
+        private Map<String, Long> byStatus;
+        private List<TaskBoardCellDto> cells;
     }
 
     @Data
@@ -137,6 +322,44 @@ public class CoreDtos {
         private String verifiedDate;
         private String fileUrl;
         private Boolean isGlobal;
+        private String leaseExpiresAt; // set on documents handed out by the verification queue
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class UploadInitDto {
+        private String employeeId;
+        private String type;
+        private String fileName;
+        private String contentType;
+        private Long totalSize;
+        private Boolean isGlobal;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class UploadSessionDto {
+        private String uploadId;
+        private String fileName;
+        private long totalSize;
+        private int chunkSize;
+        private int totalChunks;
+        private List<Integer> receivedChunks;
+        private String status;
+        private String expiresAt;
+        private DocumentDto document; // set once completed
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class UploadCompleteDto {
+        private String sha256; // optional whole-file checksum
     }
 
     @Data
@@ -152,6 +375,37 @@ public class CoreDtos {
         private String content;
         private String timestamp;
         private boolean isRead;
+        private boolean broadcast; // sent to everyone; must have no receiverId
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MessagePageDto {
+        private List<MessageDto> items; // newest first
+        private String nextCursor; // null when there is nothing older
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ConversationDto {
+        private String userId; // the other participant
+        private String userName;
+        private MessageDto lastMessage;
+        private long unreadCount; // messages from this user not yet read
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class UnreadCountDto {
+        private long total; // direct messages plus broadcasts
+        private long broadcasts;
+        private Map<String, Long> byConversation; // sender id -> unread messages from them
     }
 
     @Data
@@ -166,6 +420,51 @@ public class CoreDtos {
         private String content;
     }
 
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class WorkReportPageDto {
+        private List<WorkReportDto> items; // newest first
+        private String nextCursor; // null on the last page
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DigestEmployeeDto {
+        private String employeeId;
+        private String employeeName;
+        private int reports;
+        private int daysReported;
+        private String lastReportDate; // null when nothing was filed that week
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TeamDigestDto {
+        private String departmentId; // null for employees without a department
+        private String departmentName;
+        private int members;
+        private int contributors; // members who filed at least one report
+        private int reports;
+        private List<DigestEmployeeDto> employees;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class WeeklyDigestDto {
+        private String weekStart; // Monday
+        private String weekEnd; // Sunday
+        private String generatedAt;
+        private List<TeamDigestDto> teams;
+    }
+
     @Data
     @Builder
     @AllArgsConstructor
@@ -215,6 +514,29 @@ public class CoreDtos {
         private String priority;
     }
 
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ReadReceiptSummaryDto {
+        private String announcementId;
+        private int readCount; // active employees who have read it
+        private int audience; // active employees
+        private double readPercentage;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DepartmentUnreadDto {
+        private String departmentId; // null for employees without a department
+        private String departmentName;
+        private int members;
+        private int unread;
+        private List<String> unreadEmployeeIds;
+    }
+
     @Data
     @Builder
     @AllArgsConstructor
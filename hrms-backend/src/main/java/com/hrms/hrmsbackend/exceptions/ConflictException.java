@@ -0,0 +1,15 @@
+package com.hrms.hrmsbackend.exceptions;
+
+/**
+ * Thrown when an update was made against a stale version of a record, either
+ * because the client's If-Match no longer matches or because retries on a
+ * concurrent modification were exhausted. Mapped to 409 Conflict.
+ */
+public class ConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.hrms.hrmsbackend.exceptions;
+
+/** The requester may not access the record. Mapped to 403 Forbidden. */
+public class ForbiddenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
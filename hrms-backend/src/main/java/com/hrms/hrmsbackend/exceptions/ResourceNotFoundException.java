@@ -0,0 +1,11 @@
+package com.hrms.hrmsbackend.exceptions;
+
+/** A requested record or stored file does not exist. Mapped to 404 Not Found. */
+public class ResourceNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
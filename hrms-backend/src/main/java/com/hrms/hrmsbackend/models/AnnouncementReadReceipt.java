@@ -0,0 +1,37 @@
+package com.hrms.hrmsbackend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Who has read an announcement, as one bitmap of user ids per announcement
+ * (bit n set = user n has read it) stored deflate-compressed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "announcement_read_receipts")
+public class AnnouncementReadReceipt {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private Long announcementId;
+
+    @JdbcTypeCode(SqlTypes.LONG32VARBINARY) // longblob on MySQL, bytea on PostgreSQL
+    private byte[] readers; // deflated BitSet.toByteArray()
+
+    private Integer readCount;
+
+    private LocalDateTime updatedAt;
+}
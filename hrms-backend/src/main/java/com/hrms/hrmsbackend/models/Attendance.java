@@ -32,4 +32,9 @@ public class Attendance {
     private AttendanceStatus status;
 
     private String notes;
+
+    // Optimistic lock; bulk UPDATEs bump it explicitly
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
 }
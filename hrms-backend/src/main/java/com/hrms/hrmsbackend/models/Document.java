@@ -9,13 +9,18 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+        @Index(name = "idx_documents_employee", columnList = "employee_id"),
+        @Index(name = "idx_documents_global", columnList = "is_global"),
+        @Index(name = "idx_documents_status_lease", columnList = "status, lease_expires_at")
+})
 public class Document {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -33,6 +38,12 @@ public class Document {
     // Storing path assuming local storage
     private String fileUrl;
 
+    // SHA-256 of the stored blob; null for entries without an uploaded file
+    @Column(length = 64)
+    private String contentHash;
+
+    private Long fileSize;
+
     private LocalDate uploadDate;
 
     @Enumerated(EnumType.STRING)
@@ -41,6 +52,10 @@ public class Document {
     private Long verifiedBy;
     private LocalDate verifiedDate;
 
+    // Verification queue lease: the reviewer working on this document and until when
+    private Long leaseOwner;
+    private LocalDateTime leaseExpiresAt;
+
     @Column(name = "is_global")
     private Boolean isGlobal;
 }
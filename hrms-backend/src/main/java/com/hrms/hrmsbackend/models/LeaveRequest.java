@@ -39,6 +39,11 @@ public class LeaveRequest {
 
     private Long approvedBy;
 
+    // Optimistic lock; bulk UPDATEs bump it explicitly
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -13,7 +13,11 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_receiver_time", columnList = "receiver_id, timestamp"),
+        @Index(name = "idx_messages_pair_time", columnList = "sender_id, receiver_id, timestamp"),
+        @Index(name = "idx_messages_broadcast_time", columnList = "broadcast, timestamp")
+})
 public class Message {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,4 +32,8 @@ public class Message {
     private LocalDateTime timestamp;
 
     private boolean isRead;
+
+    // Addressed to everyone. A null receiver alone is not enough: "Contact HR" messages have none either
+    @Column(columnDefinition = "boolean default false")
+    private boolean broadcast;
 }
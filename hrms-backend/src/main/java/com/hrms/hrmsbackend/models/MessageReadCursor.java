@@ -0,0 +1,32 @@
+package com.hrms.hrmsbackend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far a user has read the broadcast stream. Broadcasts are stored once;
+ * a broadcast is unread for a user while its id is above their cursor.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "message_read_cursors")
+public class MessageReadCursor {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private Long userId;
+
+    private Long lastReadBroadcastId;
+
+    private LocalDateTime updatedAt;
+}
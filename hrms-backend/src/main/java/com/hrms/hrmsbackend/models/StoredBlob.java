@@ -0,0 +1,38 @@
+package com.hrms.hrmsbackend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored file body, addressed by the SHA-256 of its content. Documents
+ * point at a blob by hash; refCount tracks how many do, and the file is
+ * removed when it drops to zero.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stored_blobs")
+public class StoredBlob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false, length = 64)
+    private String hash; // lowercase hex SHA-256
+
+    private Long size;
+
+    private String contentType;
+
+    private Integer refCount;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -17,7 +18,11 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_assignee_status_due", columnList = "assigned_to, status, due_date"),
+        @Index(name = "idx_tasks_status_priority", columnList = "status, priority"),
+        @Index(name = "idx_tasks_due", columnList = "due_date")
+})
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -41,7 +46,24 @@ public class Task {
 
     private Integer progress; // 0-100
 
+    // Optimistic lock; bulk UPDATEs bump it explicitly
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Maintained by TaskDeadlineScheduler as deadlines pass. Only written by UPDATE statements, which
+    // leave the version alone, so a flag flip neither conflicts with nor is undone by a user's edit
+    @Builder.Default
+    @Column(nullable = false, updatable = false, columnDefinition = "boolean default false")
+    private boolean overdue = false;
+
+    @Builder.Default
+    @Column(nullable = false, updatable = false, columnDefinition = "boolean default false")
+    private boolean dueSoon = false;
+
+    // Loaded for up to 100 tasks per query when a list is mapped to DTOs
     @ElementCollection
+    @BatchSize(size = 100)
     private List<String> tags;
 
     @Builder.Default
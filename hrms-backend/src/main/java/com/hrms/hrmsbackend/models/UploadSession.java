@@ -0,0 +1,64 @@
+package com.hrms.hrmsbackend.models;
+
+import com.hrms.hrmsbackend.models.enums.DocumentType;
+import com.hrms.hrmsbackend.models.enums.UploadSessionStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable chunked document upload. Chunks land in a preallocated part
+ * file at index * chunkSize; receivedChunks is the bitmap of chunks written
+ * and verified so far.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "upload_sessions")
+public class UploadSession {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false, length = 36)
+    private String uploadId; // random UUID handed to the client
+
+    private Long employeeId;
+
+    @Enumerated(EnumType.STRING)
+    private DocumentType documentType;
+
+    private String fileName;
+    private String contentType;
+    private Boolean isGlobal;
+
+    private Long totalSize;
+    private Integer chunkSize;
+    private Integer totalChunks;
+
+    @JdbcTypeCode(SqlTypes.LONG32VARBINARY) // longblob on MySQL, bytea on PostgreSQL
+    private byte[] receivedChunks; // BitSet.toByteArray()
+
+    @Enumerated(EnumType.STRING)
+    private UploadSessionStatus status;
+
+    private Long documentId; // set once completed
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime expiresAt;
+
+    // Chunks finishing concurrently each update the bitmap; conflicts are retried
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+}
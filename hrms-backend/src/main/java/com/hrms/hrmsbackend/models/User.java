@@ -55,4 +55,7 @@ public class User {
     private boolean isFirstLogin = true;
 
     private String avatar; // URL to avatar
+
+    @Column(length = 512)
+    private String avatarRenditions; // "32:<hash>,64:<hash>,256:<hash>", built from the current avatar
 }
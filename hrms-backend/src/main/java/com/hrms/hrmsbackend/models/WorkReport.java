@@ -13,7 +13,10 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "work_reports")
+@Table(name = "work_reports", indexes = {
+        @Index(name = "idx_work_reports_employee_date", columnList = "employee_id, date"),
+        @Index(name = "idx_work_reports_date_employee", columnList = "date, employee_id")
+})
 public class WorkReport {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -4,5 +4,6 @@ public enum AttendanceStatus {
     PRESENT,
     ABSENT,
     LATE,
-    HALF_DAY
+    HALF_DAY,
+    ON_LEAVE
 }
@@ -0,0 +1,6 @@
+package com.hrms.hrmsbackend.models.enums;
+
+public enum UploadSessionStatus {
+    ACTIVE,
+    COMPLETED
+}
@@ -0,0 +1,178 @@
+package com.hrms.hrmsbackend.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrms.hrmsbackend.dtos.CoreDtos.MessageDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of chat messages to open WebSocket sessions, keyed by
+ * user. Every session has its own bounded outbound queue drained by a small
+ * shared pool, so a slow client never blocks the sender or other clients;
+ * when a queue is full the oldest frame is dropped and the client is told how
+ * many it missed, so it can catch up over REST or by reconnecting with its cursor.
+ */
+@Component
+@Slf4j
+public class MessageHub {
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService senders;
+    private final Map<Long, Set<Outbox>> sessionsByUser = new ConcurrentHashMap<>();
+
+    @Value("${app.messages.ws.queue-capacity:100}")
+    private int queueCapacity;
+
+    public MessageHub(ObjectMapper objectMapper, @Value("${app.messages.ws.send-threads:4}") int sendThreads) {
+        this.objectMapper = objectMapper;
+        AtomicInteger counter = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "message-hub-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    public Outbox register(Long userId, WebSocketSession session) {
+        Outbox outbox = new Outbox(session);
+        sessionsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(outbox);
+        return outbox;
+    }
+
+    public void unregister(Long userId, WebSocketSession session) {
+        sessionsByUser.computeIfPresent(userId, (id, outboxes) -> {
+            outboxes.removeIf(outbox -> outbox.session.getId().equals(session.getId()));
+            return outboxes.isEmpty() ? null : outboxes;
+        });
+    }
+
+    /**
+     * Delivers a message to every open session of its sender and receiver,
+     * and a broadcast to every open session.
+     */
+    public void publish(MessageDto message) {
+        String frame = messageFrame(message);
+        if (message.isBroadcast()) {
+            sessionsByUser.values().forEach(outboxes -> outboxes.forEach(outbox -> outbox.enqueue(frame)));
+            return;
+        }
+        deliver(Long.parseLong(message.getSenderId()), frame);
+        if (message.getReceiverId() != null && !message.getReceiverId().equals(message.getSenderId())) {
+            deliver(Long.parseLong(message.getReceiverId()), frame);
+        }
+    }
+
+    String messageFrame(MessageDto message) {
+        return frame(Map.of("type", "message", "cursor", message.getTimestamp() + "_" + message.getId(),
+                "message", message));
+    }
+
+    String frame(Map<String, ?> body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize frame", e);
+        }
+    }
+
+    private void deliver(Long userId, String frame) {
+        Set<Outbox> outboxes = sessionsByUser.get(userId);
+        if (outboxes != null) {
+            for (Outbox outbox : outboxes) {
+                outbox.enqueue(frame);
+            }
+        }
+    }
+
+    /** Bounded per-session queue; at most one pool thread sends for a session at a time. */
+    public class Outbox {
+        private final WebSocketSession session;
+        private final Deque<String> queue = new ArrayDeque<>();
+        private int dropped;
+        private boolean draining;
+
+        Outbox(WebSocketSession session) {
+            this.session = session;
+        }
+
+        public void enqueue(String frame) {
+            synchronized (this) {
+                if (queue.size() >= queueCapacity) {
+                    queue.pollFirst();
+                    dropped++;
+                }
+                queue.offerLast(frame);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                String frame;
+                int missed;
+                synchronized (this) {
+                    frame = queue.pollFirst();
+                    if (frame == null) {
+                        draining = false;
+                        return;
+                    }
+                    missed = dropped;
+                    dropped = 0;
+                }
+                try {
+                    if (missed > 0) {
+                        send(frame(Map.of("type", "dropped", "count", missed)));
+                    }
+                    send(frame);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Closing WebSocket session {} after failed send", session.getId(), e);
+                    synchronized (this) {
+                        queue.clear();
+                        draining = false;
+                    }
+                    closeQuietly();
+                    return;
+                }
+            }
+        }
+
+        private void send(String frame) throws IOException {
+            if (session.isOpen()) {
+                session.sendMessage(new TextMessage(frame));
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                // already gone
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.hrms.hrmsbackend.realtime;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.MessageDto;
+import com.hrms.hrmsbackend.services.MessageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebSocket endpoint for chat: /ws/messages?userId=&since=. Direct messages
+ * to or from the user and all broadcasts are pushed. The optional
+ * since is the cursor of the last message frame the client saw; anything
+ * newer is replayed on connect, or a resync frame is sent when the gap is
+ * too large to replay. Replayed and live frames can overlap around the
+ * connect, so clients de-duplicate by message id.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MessageSocketHandler extends TextWebSocketHandler {
+
+    private static final String USER_ID = "userId";
+
+    private final MessageHub messageHub;
+    private final MessageService messageService;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        MultiValueMap<String, String> params = UriComponentsBuilder.fromUri(session.getUri()).build()
+                .getQueryParams();
+        Long userId;
+        try {
+            userId = Long.parseLong(params.getFirst(USER_ID));
+        } catch (RuntimeException e) {
+            session.close(CloseStatus.BAD_DATA.withReason("userId is required"));
+            return;
+        }
+        session.getAttributes().put(USER_ID, userId);
+
+        // Register before reading the backlog so nothing sent in between is missed
+        MessageHub.Outbox outbox = messageHub.register(userId, session);
+        String since = params.getFirst("since");
+        if (since != null && !since.isBlank()) {
+            List<MessageDto> missed = messageService.getMessagesSince(userId, since);
+            if (missed == null) {
+                outbox.enqueue(messageHub.frame(Map.of("type", "resync")));
+            } else {
+                missed.forEach(message -> outbox.enqueue(messageHub.messageFrame(message)));
+            }
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Object userId = session.getAttributes().get(USER_ID);
+        if (userId != null) {
+            messageHub.unregister((Long) userId, session);
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("WebSocket transport error on session {}", session.getId(), exception);
+    }
+}
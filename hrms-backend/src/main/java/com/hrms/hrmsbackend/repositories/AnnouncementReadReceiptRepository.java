@@ -0,0 +1,20 @@
+package com.hrms.hrmsbackend.repositories;
+
+import com.hrms.hrmsbackend.models.AnnouncementReadReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnnouncementReadReceiptRepository extends JpaRepository<AnnouncementReadReceipt, Long> {
+    List<AnnouncementReadReceipt> findByAnnouncementIdIn(Collection<Long> announcementIds);
+
+    @Modifying
+    @Query("delete from AnnouncementReadReceipt r where r.announcementId = :announcementId")
+    int deleteByAnnouncement(@Param("announcementId") Long announcementId);
+}
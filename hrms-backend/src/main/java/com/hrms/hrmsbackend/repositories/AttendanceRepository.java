@@ -1,10 +1,16 @@
 package com.hrms.hrmsbackend.repositories;
 
 import com.hrms.hrmsbackend.models.Attendance;
+import com.hrms.hrmsbackend.models.enums.AttendanceStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +19,59 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     List<Attendance> findByEmployeeId(Long employeeId);
 
     Optional<Attendance> findByEmployeeIdAndDate(Long employeeId, LocalDate date);
+
+    List<Attendance> findByDate(LocalDate date);
+
+    List<Attendance> findByDateBetweenOrderByEmployeeIdAscDateAsc(LocalDate from, LocalDate to);
+
+    List<Attendance> findByEmployeeIdAndDateBetweenOrderByDateAsc(Long employeeId, LocalDate from, LocalDate to);
+
+    @Query("select a.date as date, a.status as status, count(a) as total from Attendance a "
+            + "where a.date between :from and :to group by a.date, a.status")
+    List<DailyStatusCount> countByDateAndStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Day close: records still open are checked out at the configured time
+    @Modifying
+    @Query("update Attendance a set a.checkOut = :closeAt, "
+            + "a.hoursWorked = (:closeMinutes - (extract(hour from a.checkIn) * 60 + extract(minute from a.checkIn))) / 60.0, "
+            + "a.notes = coalesce(a.notes, :note), a.version = a.version + 1 "
+            + "where a.date = :date and a.employeeId in :employeeIds "
+            + "and a.checkIn is not null and a.checkOut is null and a.checkIn < :closeAt")
+    int autoCheckOut(@Param("date") LocalDate date, @Param("employeeIds") Collection<Long> employeeIds,
+            @Param("closeAt") LocalTime closeAt, @Param("closeMinutes") int closeMinutes,
+            @Param("note") String note);
+
+    // Checked in after the auto check-out time: close at check-in with no hours
+    @Modifying
+    @Query("update Attendance a set a.checkOut = a.checkIn, a.hoursWorked = 0.0, "
+            + "a.notes = coalesce(a.notes, :note), a.version = a.version + 1 "
+            + "where a.date = :date and a.employeeId in :employeeIds "
+            + "and a.checkIn is not null and a.checkOut is null")
+    int closeLateCheckIns(@Param("date") LocalDate date, @Param("employeeIds") Collection<Long> employeeIds,
+            @Param("note") String note);
+
+    @Modifying
+    @Query("insert into Attendance (employeeId, date, status, hoursWorked, version) "
+            + "select u.id, :date, com.hrms.hrmsbackend.models.enums.AttendanceStatus.ON_LEAVE, 0.0, 0L from User u "
+            + "where u.id in :employeeIds "
+            + "and not exists (select a.id from Attendance a where a.employeeId = u.id and a.date = :date) "
+            + "and exists (select l.id from LeaveRequest l where l.employeeId = u.id "
+            + "and l.status = com.hrms.hrmsbackend.models.enums.LeaveStatus.APPROVED "
+            + "and l.startDate <= :date and l.endDate >= :date)")
+    int insertOnLeave(@Param("date") LocalDate date, @Param("employeeIds") Collection<Long> employeeIds);
+
+    @Modifying
+    @Query("insert into Attendance (employeeId, date, status, hoursWorked, version) "
+            + "select u.id, :date, com.hrms.hrmsbackend.models.enums.AttendanceStatus.ABSENT, 0.0, 0L from User u "
+            + "where u.id in :employeeIds and (u.joiningDate is null or u.joiningDate <= :date) "
+            + "and not exists (select a.id from Attendance a where a.employeeId = u.id and a.date = :date)")
+    int insertAbsent(@Param("date") LocalDate date, @Param("employeeIds") Collection<Long> employeeIds);
+
+    interface DailyStatusCount {
+        LocalDate getDate();
+
+        AttendanceStatus getStatus();
+
+        long getTotal();
+    }
 }
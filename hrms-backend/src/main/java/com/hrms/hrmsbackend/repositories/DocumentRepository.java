@@ -2,14 +2,69 @@ package com.hrms.hrmsbackend.repositories;
 
 import com.hrms.hrmsbackend.models.Document;
 import com.hrms.hrmsbackend.models.enums.DocumentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
     List<Document> findByEmployeeId(Long employeeId);
 
+    // An employee's own documents; global ones are listed separately
+    @Query("select d from Document d where d.employeeId = :employeeId "
+            + "and (d.isGlobal is null or d.isGlobal = false) order by d.id")
+    List<Document> findPersonalByEmployeeId(@Param("employeeId") Long employeeId);
+
+    List<Document> findByIsGlobalTrueOrderById();
+
+    // Documents still stored as files under uploads/, for the blob store migration
+    @Query("select d from Document d where d.contentHash is null and d.fileUrl like '%/uploads/%' "
+            + "and d.id > :afterId order by d.id")
+    List<Document> findLegacyFiles(@Param("afterId") Long afterId, Pageable pageable);
+
     long countByStatus(DocumentStatus status);
+
+    // Pending documents with no live lease, locking the rows and skipping those another claim holds
+    @Query(value = "select d.id from documents d where d.status = 'PENDING' "
+            + "and (d.lease_expires_at is null or d.lease_expires_at < :now) "
+            + "order by d.id limit :limit for update skip locked", nativeQuery = true)
+    List<Long> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Portable variant for databases without SKIP LOCKED; callers serialize claims themselves
+    @Query("select d.id from Document d where d.status = com.hrms.hrmsbackend.models.enums.DocumentStatus.PENDING "
+            + "and (d.leaseExpiresAt is null or d.leaseExpiresAt < :now) order by d.id")
+    List<Long> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Guarded so a row leased by someone else in the meantime is left alone
+    @Modifying(clearAutomatically = true)
+    @Query("update Document d set d.leaseOwner = :owner, d.leaseExpiresAt = :expires where d.id in :ids "
+            + "and d.status = com.hrms.hrmsbackend.models.enums.DocumentStatus.PENDING "
+            + "and (d.leaseExpiresAt is null or d.leaseExpiresAt < :now)")
+    int lease(@Param("ids") List<Long> ids, @Param("owner") Long owner, @Param("expires") LocalDateTime expires,
+            @Param("now") LocalDateTime now);
+
+    @Query("select d from Document d where d.id in :ids and d.leaseOwner = :owner "
+            + "and d.leaseExpiresAt = :expires order by d.id")
+    List<Document> findLeased(@Param("ids") List<Long> ids, @Param("owner") Long owner,
+            @Param("expires") LocalDateTime expires);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Document d set d.status = :status, d.verifiedBy = :owner, d.verifiedDate = :today, "
+            + "d.leaseOwner = null, d.leaseExpiresAt = null where d.id = :id and d.leaseOwner = :owner "
+            + "and d.leaseExpiresAt >= :now "
+            + "and d.status = com.hrms.hrmsbackend.models.enums.DocumentStatus.PENDING")
+    int completeLeased(@Param("id") Long id, @Param("owner") Long owner, @Param("status") DocumentStatus status,
+            @Param("today") LocalDate today, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Document d set d.leaseOwner = null, d.leaseExpiresAt = null "
+            + "where d.id = :id and d.leaseOwner = :owner")
+    int releaseLease(@Param("id") Long id, @Param("owner") Long owner);
 }
@@ -0,0 +1,16 @@
+package com.hrms.hrmsbackend.repositories;
+
+import com.hrms.hrmsbackend.models.Holiday;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HolidayRepository extends JpaRepository<Holiday, Long> {
+    List<Holiday> findByDateBetweenOrderByDate(LocalDate from, LocalDate to);
+
+    Optional<Holiday> findByDate(LocalDate date);
+}
@@ -1,12 +1,48 @@
 package com.hrms.hrmsbackend.repositories;
 
 import com.hrms.hrmsbackend.models.LeaveRequest;
+import com.hrms.hrmsbackend.models.enums.LeaveStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface LeaveRepository extends JpaRepository<LeaveRequest, Long> {
     List<LeaveRequest> findByEmployeeId(Long employeeId);
+
+    List<LeaveRequest> findByStatusIn(Collection<LeaveStatus> statuses);
+
+    // No lock: the guarded bulk UPDATE below reports a race as a row count that does not match
+    @Query("select l.id from LeaveRequest l where l.id in :ids "
+            + "and l.status = com.hrms.hrmsbackend.models.enums.LeaveStatus.PENDING")
+    List<Long> findPendingIds(@Param("ids") Collection<Long> ids);
+
+    // Flushes before and clears after, so no managed leave is left stale or dirty against the new version
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update LeaveRequest l set l.status = com.hrms.hrmsbackend.models.enums.LeaveStatus.APPROVED, "
+            + "l.approvedBy = :approvedBy, l.version = l.version + 1 "
+            + "where l.id in :ids and l.status = com.hrms.hrmsbackend.models.enums.LeaveStatus.PENDING")
+    int approvePending(@Param("ids") Collection<Long> ids, @Param("approvedBy") Long approvedBy);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update LeaveRequest l set l.status = com.hrms.hrmsbackend.models.enums.LeaveStatus.REJECTED, "
+            + "l.version = l.version + 1 "
+            + "where l.id in :ids and l.status = com.hrms.hrmsbackend.models.enums.LeaveStatus.PENDING")
+    int rejectPending(@Param("ids") Collection<Long> ids);
+
+    @Query("select l from LeaveRequest l where l.status = :status and l.startDate <= :to and l.endDate >= :from "
+            + "order by l.employeeId, l.startDate")
+    List<LeaveRequest> findOverlapping(@Param("status") LeaveStatus status, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Query("select l from LeaveRequest l where l.employeeId = :employeeId and l.status = :status "
+            + "and l.startDate <= :to and l.endDate >= :from order by l.startDate")
+    List<LeaveRequest> findOverlappingForEmployee(@Param("employeeId") Long employeeId,
+            @Param("status") LeaveStatus status, @Param("from") LocalDate from, @Param("to") LocalDate to);
 }
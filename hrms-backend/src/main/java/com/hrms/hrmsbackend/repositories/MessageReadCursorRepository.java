@@ -0,0 +1,21 @@
+package com.hrms.hrmsbackend.repositories;
+
+import com.hrms.hrmsbackend.models.MessageReadCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface MessageReadCursorRepository extends JpaRepository<MessageReadCursor, Long> {
+    boolean existsByUserId(Long userId);
+
+    // Cursors only move forward
+    @Modifying
+    @Query("update MessageReadCursor c set c.lastReadBroadcastId = :messageId, c.updatedAt = :now "
+            + "where c.userId = :userId and c.lastReadBroadcastId < :messageId")
+    int advance(@Param("userId") Long userId, @Param("messageId") Long messageId, @Param("now") LocalDateTime now);
+}
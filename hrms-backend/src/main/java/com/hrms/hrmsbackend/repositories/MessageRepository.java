@@ -1,12 +1,93 @@
 package com.hrms.hrmsbackend.repositories;
 
 import com.hrms.hrmsbackend.models.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findAllByOrderByTimestampDesc();
+
+    // Newest first; the cursor is the (timestamp, id) of the last message already shown
+    @Query("select m from Message m where m.receiverId = :receiverId "
+            + "and (:beforeTime is null or m.timestamp < :beforeTime "
+            + "or (m.timestamp = :beforeTime and m.id < :beforeId)) "
+            + "order by m.timestamp desc, m.id desc")
+    List<Message> findInbox(@Param("receiverId") Long receiverId, @Param("beforeTime") LocalDateTime beforeTime,
+            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // One direction of a conversation; a thread page merges both directions
+    @Query("select m from Message m where m.senderId = :senderId and m.receiverId = :receiverId "
+            + "and (:beforeTime is null or m.timestamp < :beforeTime "
+            + "or (m.timestamp = :beforeTime and m.id < :beforeId)) "
+            + "order by m.timestamp desc, m.id desc")
+    List<Message> findSent(@Param("senderId") Long senderId, @Param("receiverId") Long receiverId,
+            @Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Catch-up after a reconnect: oldest first, strictly after the client's (timestamp, id) cursor
+    @Query("select m from Message m where m.receiverId = :receiverId "
+            + "and (m.timestamp > :afterTime or (m.timestamp = :afterTime and m.id > :afterId)) "
+            + "order by m.timestamp, m.id")
+    List<Message> findReceivedAfter(@Param("receiverId") Long receiverId, @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select m from Message m where m.senderId = :senderId and m.receiverId is not null "
+            + "and (m.timestamp > :afterTime or (m.timestamp = :afterTime and m.id > :afterId)) "
+            + "order by m.timestamp, m.id")
+    List<Message> findSentAfter(@Param("senderId") Long senderId, @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select m from Message m where m.broadcast = true "
+            + "and (:beforeTime is null or m.timestamp < :beforeTime "
+            + "or (m.timestamp = :beforeTime and m.id < :beforeId)) "
+            + "order by m.timestamp desc, m.id desc")
+    List<Message> findBroadcasts(@Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
+    @Query("select m from Message m where m.broadcast = true "
+            + "and (m.timestamp > :afterTime or (m.timestamp = :afterTime and m.id > :afterId)) "
+            + "order by m.timestamp, m.id")
+    List<Message> findBroadcastsAfter(@Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("select m.id from Message m where m.broadcast = true order by m.id")
+    List<Long> findBroadcastIds();
+
+    // Latest message per counterpart, for the conversation list
+    @Query("select max(m.id) from Message m where m.receiverId = :userId group by m.senderId")
+    List<Long> findLatestReceivedIds(@Param("userId") Long userId);
+
+    @Query("select max(m.id) from Message m where m.senderId = :userId and m.receiverId is not null "
+            + "group by m.receiverId")
+    List<Long> findLatestSentIds(@Param("userId") Long userId);
+
+    @Query("select m.receiverId as receiverId, m.senderId as senderId, count(m) as unread from Message m "
+            + "where m.receiverId is not null and m.isRead = false group by m.receiverId, m.senderId")
+    List<UnreadCount> countUnread();
+
+    // Guarded so concurrent marks of the same message count it once
+    @Modifying
+    @Query("update Message m set m.isRead = true where m.id = :id and m.isRead = false")
+    int markRead(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Message m set m.isRead = true where m.senderId = :senderId and m.receiverId = :receiverId "
+            + "and m.isRead = false and (:upToId is null or m.id <= :upToId)")
+    int markConversationRead(@Param("receiverId") Long receiverId, @Param("senderId") Long senderId,
+            @Param("upToId") Long upToId);
+
+    interface UnreadCount {
+        Long getReceiverId();
+
+        Long getSenderId();
+
+        long getUnread();
+    }
 }
@@ -0,0 +1,48 @@
+package com.hrms.hrmsbackend.repositories;
+
+import com.hrms.hrmsbackend.models.StoredBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, Long> {
+    Optional<StoredBlob> findByHash(String hash);
+
+    List<StoredBlob> findByIdGreaterThanOrderById(Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("update StoredBlob b set b.refCount = b.refCount + 1 where b.hash = :hash")
+    int incrementRefCount(@Param("hash") String hash);
+
+    // Insert-or-increment in one statement per dialect. A concurrent upload of the same new
+    // content waits on the unique hash index and then increments instead of failing.
+    @Modifying
+    @Query(value = "insert into stored_blobs (hash, size, content_type, ref_count, created_at) "
+            + "values (:hash, :size, :contentType, 1, :createdAt) "
+            + "on duplicate key update ref_count = ref_count + 1", nativeQuery = true)
+    int upsertMySql(@Param("hash") String hash, @Param("size") Long size, @Param("contentType") String contentType,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query(value = "insert into stored_blobs (hash, size, content_type, ref_count, created_at) "
+            + "values (:hash, :size, :contentType, 1, :createdAt) "
+            + "on conflict (hash) do update set ref_count = stored_blobs.ref_count + 1", nativeQuery = true)
+    int upsertPostgres(@Param("hash") String hash, @Param("size") Long size,
+            @Param("contentType") String contentType, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("update StoredBlob b set b.refCount = b.refCount - 1 where b.hash = :hash and b.refCount > 0")
+    int decrementRefCount(@Param("hash") String hash);
+
+    @Modifying
+    @Query("delete from StoredBlob b where b.hash = :hash and b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
@@ -1,15 +1,101 @@
 package com.hrms.hrmsbackend.repositories;
 
 import com.hrms.hrmsbackend.models.Task;
+import com.hrms.hrmsbackend.models.enums.TaskPriority;
 import com.hrms.hrmsbackend.models.enums.TaskStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
     List<Task> findByAssignedTo(Long employeeId);
 
     long countByStatus(TaskStatus status);
+
+    @Query("select t.status as status, t.priority as priority, count(t) as total from Task t "
+            + "group by t.status, t.priority")
+    List<StatusPriorityCount> countByStatusAndPriority();
+
+    @Query("select t.id from Task t where t.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Bulk edits: one statement per changed field across all selected tasks
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.status = :status, t.version = t.version + 1 where t.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") TaskStatus status);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.status = com.hrms.hrmsbackend.models.enums.TaskStatus.COMPLETED, "
+            + "t.overdue = false, t.dueSoon = false, t.version = t.version + 1 where t.id in :ids")
+    int markCompleted(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.progress = :progress, t.version = t.version + 1 where t.id in :ids")
+    int updateProgress(@Param("ids") Collection<Long> ids, @Param("progress") Integer progress);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.priority = :priority, t.version = t.version + 1 where t.id in :ids")
+    int updatePriority(@Param("ids") Collection<Long> ids, @Param("priority") TaskPriority priority);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.assignedTo = :assignedTo, t.version = t.version + 1 where t.id in :ids")
+    int updateAssignee(@Param("ids") Collection<Long> ids, @Param("assignedTo") Long assignedTo);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.assignedTo = :toUserId, t.version = t.version + 1 "
+            + "where t.assignedTo = :fromUserId and t.status <> com.hrms.hrmsbackend.models.enums.TaskStatus.COMPLETED")
+    int reassignOpenTasks(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+
+    @Query("select t.id as id, t.dueDate as dueDate from Task t "
+            + "where t.status <> com.hrms.hrmsbackend.models.enums.TaskStatus.COMPLETED and t.dueDate is not null")
+    List<TaskDeadline> findOpenDeadlines();
+
+    // Flag updates are guarded so each event flips (and notifies) at most once. They are system
+    // bookkeeping, not edits, so they leave the version (and any client's If-Match) alone
+    @Modifying
+    @Query("update Task t set t.dueSoon = true where t.id = :id and t.dueSoon = false and t.overdue = false "
+            + "and t.status <> com.hrms.hrmsbackend.models.enums.TaskStatus.COMPLETED")
+    int markDueSoon(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Task t set t.overdue = true, t.dueSoon = false where t.id = :id and t.overdue = false "
+            + "and t.status <> com.hrms.hrmsbackend.models.enums.TaskStatus.COMPLETED")
+    int markOverdue(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Task t set t.overdue = false, t.dueSoon = false where t.id = :id")
+    int clearDeadlineFlags(@Param("id") Long id);
+
+    interface TaskDeadline {
+        Long getId();
+
+        LocalDate getDueDate();
+    }
+
+    @Query("select t.id as taskId, tag as tag from Task t join t.tags tag")
+    List<TaskTag> findAllTaskTags();
+
+    interface TaskTag {
+        Long getTaskId();
+
+        String getTag();
+    }
+
+    interface StatusPriorityCount {
+        TaskStatus getStatus();
+
+        TaskPriority getPriority();
+
+        long getTotal();
+    }
 }
@@ -0,0 +1,25 @@
+package com.hrms.hrmsbackend.repositories;
+
+import com.hrms.hrmsbackend.models.UploadSession;
+import com.hrms.hrmsbackend.models.enums.UploadSessionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, Long> {
+    Optional<UploadSession> findByUploadId(String uploadId);
+
+    List<UploadSession> findByStatusAndExpiresAtBefore(UploadSessionStatus status, LocalDateTime cutoff);
+
+    // Guarded so a session that completed after it was loaded is kept
+    @Modifying
+    @Query("delete from UploadSession s where s.id = :id and s.status = :status")
+    int deleteByIdAndStatus(@Param("id") Long id, @Param("status") UploadSessionStatus status);
+}
@@ -1,9 +1,15 @@
 package com.hrms.hrmsbackend.repositories;
 
 import com.hrms.hrmsbackend.models.User;
+import com.hrms.hrmsbackend.models.enums.UserStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +21,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     Integer countByDepartmentId(Long departmentId);
+
+    List<User> findByStatusNot(UserStatus status);
+
+    // Avatars still stored as files under uploads/, for the blob store migration
+    @Query("select u from User u where u.avatar like '%/uploads/%' and u.id > :afterId order by u.id")
+    List<User> findLegacyAvatars(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select u.id from User u where u.status <> :status order by u.id")
+    List<Long> findIdsByStatusNot(@Param("status") UserStatus status);
+
+    @Query("select u.id as id, u.departmentId as departmentId from User u where u.status <> :status")
+    List<UserDepartment> findDepartmentsByStatusNot(@Param("status") UserStatus status);
+
+    boolean existsByIdAndAvatar(Long id, String avatar);
+
+    // Stored avatars whose renditions were never built, for the rendition backfill
+    @Query("select u from User u where u.avatar like 'blob:%' and u.avatarRenditions is null "
+            + "and u.id > :afterId order by u.id")
+    List<User> findAvatarsWithoutRenditions(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Empty both when the avatar changed and when no renditions are stored yet
+    @Query("select u.avatarRenditions from User u where u.id = :id and u.avatar = :avatar")
+    Optional<String> findAvatarRenditions(@Param("id") Long id, @Param("avatar") String avatar);
+
+    // Compare-and-set on the avatar and the renditions read before, leaving the rest of the row alone
+    @Modifying
+    @Query("update User u set u.avatarRenditions = :renditions where u.id = :id and u.avatar = :avatar "
+            + "and ((:previous is null and u.avatarRenditions is null) or u.avatarRenditions = :previous)")
+    int replaceAvatarRenditions(@Param("id") Long id, @Param("avatar") String avatar,
+            @Param("previous") String previous, @Param("renditions") String renditions);
+
+    interface UserDepartment {
+        Long getId();
+
+        Long getDepartmentId();
+    }
 }
@@ -2,14 +2,33 @@ package com.hrms.hrmsbackend.repositories;
 
 import com.hrms.hrmsbackend.models.WorkReport;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface WorkReportRepository extends JpaRepository<WorkReport, Long> {
+public interface WorkReportRepository extends JpaRepository<WorkReport, Long>,
+        JpaSpecificationExecutor<WorkReport> {
     List<WorkReport> findByEmployeeId(Long employeeId);
 
     List<WorkReport> findByDate(LocalDate date);
+
+    // Per-employee totals for a date range, answered from the (date, employee_id) index
+    @Query("select r.employeeId as employeeId, count(r) as reports, count(distinct r.date) as days, "
+            + "max(r.date) as lastDate from WorkReport r where r.date between :from and :to group by r.employeeId")
+    List<EmployeeReportCount> countByEmployeeBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    interface EmployeeReportCount {
+        Long getEmployeeId();
+
+        long getReports();
+
+        long getDays();
+
+        LocalDate getLastDate();
+    }
 }
@@ -0,0 +1,219 @@
+package com.hrms.hrmsbackend.runners;
+
+import com.hrms.hrmsbackend.models.Document;
+import com.hrms.hrmsbackend.models.StoredBlob;
+import com.hrms.hrmsbackend.models.User;
+import com.hrms.hrmsbackend.repositories.DocumentRepository;
+import com.hrms.hrmsbackend.repositories.StoredBlobRepository;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import com.hrms.hrmsbackend.services.AvatarRenditionService;
+import com.hrms.hrmsbackend.services.BlobStorageService;
+import com.hrms.hrmsbackend.services.FileDownloadService;
+import com.hrms.hrmsbackend.storage.BlobStore;
+import com.hrms.hrmsbackend.storage.StagedBlob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-off relocation of existing uploads into the sharded blob store, enabled
+ * with app.storage.migrate-on-startup. Moves blobs left flat in the store's
+ * root (uploads/blobs/ by default), then imports files from the documents/
+ * and avatars/ directories beside it and rewrites Document.fileUrl and
+ * User.avatar to blob references. Each batch commits on its own and old files are deleted only
+ * after their batch commits, so the run can be interrupted and restarted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UploadMigrationRunner implements CommandLineRunner {
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final DocumentRepository documentRepository;
+    private final UserRepository userRepository;
+    private final BlobStore blobStore;
+    private final BlobStorageService blobStorageService;
+    private final AvatarRenditionService avatarRenditionService;
+    private final FileDownloadService fileDownloadService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.storage.migrate-on-startup:false}")
+    private boolean enabled;
+
+    @Value("${app.storage.migration.batch-size:200}")
+    private int batchSize;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        int blobs = moveFlatBlobs();
+        int documents = migrateDocuments();
+        int avatars = migrateAvatars();
+        int rendered = avatarRenditionService.renderMissing(batchSize);
+        log.info("Upload migration finished: {} flat blobs resharded, {} documents and {} avatars imported, "
+                + "{} avatar renditions backfilled", blobs, documents, avatars, rendered);
+    }
+
+    private int moveFlatBlobs() {
+        int moved = 0;
+        long afterId = 0;
+        List<StoredBlob> batch;
+        do {
+            batch = storedBlobRepository.findByIdGreaterThanOrderById(afterId, PageRequest.of(0, batchSize));
+            for (StoredBlob blob : batch) {
+                afterId = blob.getId();
+                // Before sharding, blobs were stored flat in the store's root directory
+                Path flat = blobStore.root().resolve(blob.getHash());
+                if (blobStore.exists(blob.getHash()) || !Files.isRegularFile(flat)) {
+                    continue;
+                }
+                try (InputStream in = Files.newInputStream(flat)) {
+                    StagedBlob staged = blobStore.stage(in);
+                    if (!staged.getHash().equals(blob.getHash())) {
+                        blobStore.discard(staged);
+                        log.warn("Blob {} content does not match its hash, left in place", blob.getHash());
+                        continue;
+                    }
+                    blobStore.commit(staged);
+                    Files.delete(flat);
+                    moved++;
+                } catch (IOException e) {
+                    log.warn("Could not move blob {}", blob.getHash(), e);
+                }
+            }
+        } while (batch.size() == batchSize);
+        return moved;
+    }
+
+    private int migrateDocuments() {
+        int migrated = 0;
+        long[] afterId = { 0 };
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<Document> batch = documentRepository.findLegacyFiles(afterId[0], PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    return null;
+                }
+                List<Path> replaced = new ArrayList<>();
+                int done = 0;
+                for (Document doc : batch) {
+                    afterId[0] = doc.getId();
+                    Path file = importable(doc.getFileUrl());
+                    if (file == null) {
+                        continue;
+                    }
+                    StoredBlob blob = importFile(file, doc.getFileName());
+                    if (blob == null) {
+                        continue;
+                    }
+                    doc.setContentHash(blob.getHash());
+                    doc.setFileSize(blob.getSize());
+                    doc.setFileUrl(null);
+                    replaced.add(file);
+                    done++;
+                }
+                documentRepository.saveAll(batch);
+                deleteAfterCommit(replaced);
+                return done;
+            });
+            if (count == null) {
+                return migrated;
+            }
+            migrated += count;
+        }
+    }
+
+    private int migrateAvatars() {
+        int migrated = 0;
+        long[] afterId = { 0 };
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<User> batch = userRepository.findLegacyAvatars(afterId[0], PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    return null;
+                }
+                List<Path> replaced = new ArrayList<>();
+                int done = 0;
+                for (User user : batch) {
+                    afterId[0] = user.getId();
+                    Path file = importable(user.getAvatar());
+                    if (file == null) {
+                        continue;
+                    }
+                    StoredBlob blob = importFile(file, file.getFileName().toString());
+                    if (blob == null) {
+                        continue;
+                    }
+                    user.setAvatar(BlobStorageService.ref(blob.getHash()));
+                    avatarRenditionService.schedule(user.getId(), user.getAvatar());
+                    replaced.add(file);
+                    done++;
+                }
+                userRepository.saveAll(batch);
+                deleteAfterCommit(replaced);
+                return done;
+            });
+            if (count == null) {
+                return migrated;
+            }
+            migrated += count;
+        }
+    }
+
+    private Path importable(String url) {
+        try {
+            Path file = fileDownloadService.localPath(url);
+            if (Files.isRegularFile(file)) {
+                return file;
+            }
+        } catch (RuntimeException e) {
+            // not a local upload
+        }
+        log.warn("Skipping missing upload {}", url);
+        return null;
+    }
+
+    private StoredBlob importFile(Path file, String fileName) {
+        String contentType = MediaTypeFactory.getMediaType(fileName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+        try (InputStream in = Files.newInputStream(file)) {
+            return blobStorageService.store(in, contentType);
+        } catch (IOException e) {
+            log.warn("Could not import {}", file, e);
+            return null;
+        }
+    }
+
+    private static void deleteAfterCommit(List<Path> files) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (Path file : files) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        log.warn("Could not delete migrated file {}", file, e);
+                    }
+                }
+            }
+        });
+    }
+}
@@ -20,16 +20,24 @@ public class AnalyticsService {
         private final LeaveRepository leaveRepository;
         private final DocumentRepository documentRepository;
         private final TaskRepository taskRepository;
+        private final AttendanceBoardService attendanceBoardService;
+        private final LeaveIntervalIndex leaveIntervalIndex;
+        private final LeaveBalanceLedger leaveBalanceLedger;
 
         public AnalyticsService(UserRepository userRepository, DepartmentRepository departmentRepository,
                         AttendanceRepository attendanceRepository, LeaveRepository leaveRepository,
-                        DocumentRepository documentRepository, TaskRepository taskRepository) {
+                        DocumentRepository documentRepository, TaskRepository taskRepository,
+                        AttendanceBoardService attendanceBoardService, LeaveIntervalIndex leaveIntervalIndex,
+                        LeaveBalanceLedger leaveBalanceLedger) {
                 this.userRepository = userRepository;
                 this.departmentRepository = departmentRepository;
                 this.attendanceRepository = attendanceRepository;
                 this.leaveRepository = leaveRepository;
                 this.documentRepository = documentRepository;
                 this.taskRepository = taskRepository;
+                this.attendanceBoardService = attendanceBoardService;
+                this.leaveIntervalIndex = leaveIntervalIndex;
+                this.leaveBalanceLedger = leaveBalanceLedger;
         }
 
         // In-memory storage for leave policies (In a real app, this would be in DB)
@@ -56,17 +64,9 @@ public class AnalyticsService {
                 return DashboardStats.builder()
                                 .totalEmployees((int) userRepository.count())
                                 .totalDepartments((int) departmentRepository.count())
-                                .presentToday((int) attendanceRepository.findAll().stream()
-                                                .filter(a -> a.getDate().equals(
-                                                                LocalDate.now(java.time.ZoneId.of("Asia/Kolkata")))
-                                                                && (a.getStatus() == AttendanceStatus.PRESENT || a
-                                                                                .getStatus() == AttendanceStatus.LATE))
-                                                .count())
-                                .onLeaveToday((int) leaveRepository.findAll().stream()
-                                                .filter(l -> l.getStartDate().isBefore(LocalDate.now().plusDays(1))
-                                                                && l.getEndDate().isAfter(LocalDate.now().minusDays(1))
-                                                                && l.getStatus() == LeaveStatus.APPROVED)
-                                                .count())
+                                .presentToday(attendanceBoardService.countCheckedIn())
+                                .onLeaveToday(leaveIntervalIndex.countOnLeave(
+                                                LocalDate.now(java.time.ZoneId.of("Asia/Kolkata"))))
                                 .pendingLeaveRequests((int) leaveRepository.findAll().stream()
                                                 .filter(l -> l.getStatus() == LeaveStatus.PENDING)
                                                 .count())
@@ -85,12 +85,7 @@ public class AnalyticsService {
                                 leavePolicies.getOrDefault("Earned Leave (EL)", 0);
 
                 // Calculate used leaves (Approved)
-                int usedLeaves = (int) leaveRepository.findAll().stream()
-                                .filter(l -> l.getEmployeeId().equals(employeeId)
-                                                && l.getStatus() == LeaveStatus.APPROVED)
-                                .mapToLong(l -> java.time.temporal.ChronoUnit.DAYS.between(l.getStartDate(),
-                                                l.getEndDate()) + 1)
-                                .sum();
+                int usedLeaves = (int) leaveBalanceLedger.usedDays(employeeId);
 
                 int balance = Math.max(0, totalAllocated - usedLeaves);
 
@@ -123,21 +118,23 @@ public class AnalyticsService {
         public com.hrms.hrmsbackend.dtos.CoreDtos.ReportsDataDto getReportsData() {
                 // 1. Attendance Trend (Last 5 days)
                 java.util.List<com.hrms.hrmsbackend.dtos.CoreDtos.AttendanceTrendDto> attendanceTrend = new java.util.ArrayList<>();
-                LocalDate today = LocalDate.now();
+                LocalDate today = LocalDate.now(java.time.ZoneId.of("Asia/Kolkata"));
+                java.util.Map<LocalDate, java.util.Map<AttendanceStatus, Long>> counts = new java.util.HashMap<>();
+                attendanceRepository.countByDateAndStatus(today.minusDays(4), today)
+                                .forEach(c -> counts.computeIfAbsent(c.getDate(), d -> new java.util.EnumMap<>(
+                                                AttendanceStatus.class)).put(c.getStatus(), c.getTotal()));
+
                 for (int i = 4; i >= 0; i--) {
                         LocalDate date = today.minusDays(i);
                         String dayName = date.getDayOfWeek().name().substring(0, 3); // Mon, Tue...
 
-                        long present = attendanceRepository.findAll().stream()
-                                        .filter(a -> a.getDate().equals(date)
-                                                        && a.getStatus() == AttendanceStatus.PRESENT)
-                                        .count();
-                        long late = attendanceRepository.findAll().stream()
-                                        .filter(a -> a.getDate().equals(date) && a.getStatus() == AttendanceStatus.LATE)
-                                        .count();
-                        long totalEmps = userRepository.count();
-                        // Simplified absent calculation: Total - (Present + Late)
-                        long absent = Math.max(0, totalEmps - (present + late));
+                        java.util.Map<AttendanceStatus, Long> day = counts.getOrDefault(date, java.util.Map.of());
+                        long present = day.getOrDefault(AttendanceStatus.PRESENT, 0L);
+                        long late = day.getOrDefault(AttendanceStatus.LATE, 0L);
+                        // Closed days carry ABSENT rows; today is not closed yet, so read it off the board
+                        long absent = date.equals(today)
+                                        ? attendanceBoardService.getBoard().getAbsentCount()
+                                        : day.getOrDefault(AttendanceStatus.ABSENT, 0L);
 
                         attendanceTrend.add(com.hrms.hrmsbackend.dtos.CoreDtos.AttendanceTrendDto.builder()
                                         .name(dayName)
@@ -160,16 +157,17 @@ public class AnalyticsService {
                                                 .build())
                                 .collect(java.util.stream.Collectors.toList());
 
-                // 3. Task Status Distribution
+                // 3. Task Status Distribution (one GROUP BY instead of a count per status)
+                java.util.Map<TaskStatus, Long> taskCounts = new java.util.EnumMap<>(TaskStatus.class);
+                taskRepository.countByStatusAndPriority().forEach(c -> {
+                        if (c.getStatus() != null)
+                                taskCounts.merge(c.getStatus(), c.getTotal(), Long::sum);
+                });
                 java.util.List<com.hrms.hrmsbackend.dtos.CoreDtos.ChartDataDto> taskStatusDistribution = java.util.Arrays
                                 .stream(TaskStatus.values())
                                 .map(status -> com.hrms.hrmsbackend.dtos.CoreDtos.ChartDataDto.builder()
                                                 .name(status.name()) // COMPLETED, TODO...
-                                                // Frontend expects "Completed", "In Progress" etc. Mapping required or
-                                                // frontend
-                                                // adapts.
-                                                // Let's format nicely.
-                                                .value((int) taskRepository.countByStatus(status))
+                                                .value(taskCounts.getOrDefault(status, 0L).intValue())
                                                 .build())
                                 .collect(java.util.stream.Collectors.toList());
 
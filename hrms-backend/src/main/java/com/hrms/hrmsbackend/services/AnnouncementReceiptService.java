@@ -0,0 +1,271 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.DepartmentUnreadDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.ReadReceiptSummaryDto;
+import com.hrms.hrmsbackend.exceptions.ResourceNotFoundException;
+import com.hrms.hrmsbackend.models.Announcement;
+import com.hrms.hrmsbackend.models.AnnouncementReadReceipt;
+import com.hrms.hrmsbackend.models.Department;
+import com.hrms.hrmsbackend.models.enums.UserStatus;
+import com.hrms.hrmsbackend.repositories.AnnouncementReadReceiptRepository;
+import com.hrms.hrmsbackend.repositories.AnnouncementRepository;
+import com.hrms.hrmsbackend.repositories.DepartmentRepository;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import com.hrms.hrmsbackend.repositories.UserRepository.UserDepartment;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Announcement read receipts as one bitmap of user ids per announcement,
+ * held in memory and written behind: marking a read sets a bit and flags the
+ * announcement dirty, and a scheduled flush persists each dirty bitmap
+ * deflate-compressed in a single transaction. Percentages and per-department
+ * unread counts are bitmap intersections with the active workforce.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnnouncementReceiptService {
+
+    private final AnnouncementReadReceiptRepository receiptRepository;
+    private final AnnouncementRepository announcementRepository;
+    private final UserRepository userRepository;
+    private final DepartmentRepository departmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, BitSet> readers = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    // Keeps a flush from re-creating the row of an announcement deleted meanwhile
+    private final Object flushLock = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Long> ids = announcementRepository.findAll().stream().map(Announcement::getId).toList();
+        Map<Long, AnnouncementReadReceipt> stored = receiptRepository.findByAnnouncementIdIn(ids).stream()
+                .collect(Collectors.toMap(AnnouncementReadReceipt::getAnnouncementId, Function.identity()));
+        readers.clear();
+        for (Long id : ids) {
+            AnnouncementReadReceipt receipt = stored.get(id);
+            readers.put(id, receipt != null ? BitSet.valueOf(inflate(receipt.getReaders())) : new BitSet());
+        }
+        log.info("Loaded read receipts for {} announcements", ids.size());
+    }
+
+    /** Records that the user has read the announcement; persisted by the next flush. */
+    public void markRead(Long announcementId, Long userId) {
+        BitSet bits = bitmap(announcementId);
+        if (!fitsBitmap(userId)) {
+            throw new RuntimeException("Invalid user id " + userId);
+        }
+        synchronized (bits) {
+            if (bits.get(userId.intValue())) {
+                return;
+            }
+        }
+        // Only a first read pays for the lookup; an unknown id would otherwise grow the bitmap to its size
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        synchronized (bits) {
+            bits.set(userId.intValue());
+        }
+        dirty.add(announcementId);
+    }
+
+    public boolean hasRead(Long announcementId, Long userId) {
+        BitSet bits = bitmap(announcementId);
+        if (!fitsBitmap(userId)) {
+            return false;
+        }
+        synchronized (bits) {
+            return bits.get(userId.intValue());
+        }
+    }
+
+    private static boolean fitsBitmap(Long userId) {
+        return userId != null && userId >= 0 && userId <= Integer.MAX_VALUE;
+    }
+
+    public ReadReceiptSummaryDto summary(Long announcementId) {
+        BitSet read = snapshot(announcementId);
+        BitSet audience = new BitSet();
+        for (Long id : userRepository.findIdsByStatusNot(UserStatus.INACTIVE)) {
+            audience.set(id.intValue());
+        }
+        read.and(audience);
+        int audienceSize = audience.cardinality();
+        int readCount = read.cardinality();
+        return ReadReceiptSummaryDto.builder()
+                .announcementId(announcementId.toString())
+                .readCount(readCount)
+                .audience(audienceSize)
+                .readPercentage(audienceSize == 0 ? 0 : Math.round(readCount * 10000.0 / audienceSize) / 100.0)
+                .build();
+    }
+
+    /** Active employees who have not read the announcement, grouped by department. */
+    public List<DepartmentUnreadDto> unreadByDepartment(Long announcementId) {
+        BitSet read = snapshot(announcementId);
+        Map<Long, BitSet> members = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        for (UserDepartment user : userRepository.findDepartmentsByStatusNot(UserStatus.INACTIVE)) {
+            members.computeIfAbsent(user.getDepartmentId(), id -> new BitSet()).set(user.getId().intValue());
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (Department department : departmentRepository.findAllById(
+                members.keySet().stream().filter(Objects::nonNull).toList())) {
+            names.put(department.getId(), department.getName());
+        }
+
+        List<DepartmentUnreadDto> result = new ArrayList<>(members.size());
+        members.forEach((departmentId, memberBits) -> {
+            BitSet unread = (BitSet) memberBits.clone();
+            unread.andNot(read);
+            result.add(DepartmentUnreadDto.builder()
+                    .departmentId(departmentId != null ? departmentId.toString() : null)
+                    .departmentName(departmentId != null ? names.getOrDefault(departmentId, "Unknown") : null)
+                    .members(memberBits.cardinality())
+                    .unread(unread.cardinality())
+                    .unreadEmployeeIds(unread.stream().mapToObj(Integer::toString).toList())
+                    .build());
+        });
+        return result;
+    }
+
+    /** Starts tracking a newly created announcement. */
+    public void track(Long announcementId) {
+        readers.putIfAbsent(announcementId, new BitSet());
+    }
+
+    /** Drops the receipts of a deleted announcement. */
+    public void forget(Long announcementId) {
+        synchronized (flushLock) {
+            readers.remove(announcementId);
+            dirty.remove(announcementId);
+            transactionTemplate.executeWithoutResult(status -> receiptRepository.deleteByAnnouncement(announcementId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.announcements.receipts.flush-interval-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        synchronized (flushLock) {
+            Map<Long, byte[]> pending = new HashMap<>();
+            Map<Long, Integer> counts = new HashMap<>();
+            for (Long id : List.copyOf(dirty)) {
+                // Cleared before copying, so a read marked after the copy flags it again
+                dirty.remove(id);
+                BitSet bits = readers.get(id);
+                if (bits == null) {
+                    continue;
+                }
+                synchronized (bits) {
+                    pending.put(id, deflate(bits.toByteArray()));
+                    counts.put(id, bits.cardinality());
+                }
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, AnnouncementReadReceipt> existing = receiptRepository
+                        .findByAnnouncementIdIn(pending.keySet()).stream()
+                        .collect(Collectors.toMap(AnnouncementReadReceipt::getAnnouncementId, Function.identity()));
+                List<AnnouncementReadReceipt> batch = new ArrayList<>(pending.size());
+                pending.forEach((id, bytes) -> {
+                    AnnouncementReadReceipt receipt = existing.getOrDefault(id,
+                            AnnouncementReadReceipt.builder().announcementId(id).build());
+                    receipt.setReaders(bytes);
+                    receipt.setReadCount(counts.get(id));
+                    receipt.setUpdatedAt(now);
+                    batch.add(receipt);
+                });
+                receiptRepository.saveAll(batch);
+            });
+            log.debug("Flushed read receipts for {} announcements", pending.size());
+        }
+    }
+
+    private BitSet bitmap(Long announcementId) {
+        BitSet bits = readers.get(announcementId);
+        if (bits == null) {
+            throw new ResourceNotFoundException("Announcement " + announcementId + " not found");
+        }
+        return bits;
+    }
+
+    private BitSet snapshot(Long announcementId) {
+        BitSet bits = bitmap(announcementId);
+        synchronized (bits) {
+            return (BitSet) bits.clone();
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(16, raw.length / 4));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed) {
+        if (compressed == null || compressed.length == 0) {
+            return new byte[0];
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt read receipt bitmap", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,27 +1,75 @@
 package com.hrms.hrmsbackend.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hrms.hrmsbackend.dtos.CoreDtos.AnnouncementDto;
 import com.hrms.hrmsbackend.models.Announcement;
+import com.hrms.hrmsbackend.models.User;
 import com.hrms.hrmsbackend.repositories.AnnouncementRepository;
 import com.hrms.hrmsbackend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Announcements. The feed every home page loads is built once per change
+ * into an immutable snapshot holding its JSON bytes, a gzipped copy and an
+ * ETag, so serving it is a byte copy or a 304.
+ */
 @Service
 @RequiredArgsConstructor
 public class AnnouncementService {
 
     private final AnnouncementRepository announcementRepository;
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final AnnouncementReceiptService receiptService;
+
+    private final AtomicLong feedVersion = new AtomicLong();
+    private volatile FeedSnapshot feed;
 
     public List<AnnouncementDto> getAllAnnouncements() {
-        return announcementRepository.findAllByOrderByDateDesc().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return getFeed().announcements();
+    }
+
+    /** Current feed snapshot, rebuilt only after an announcement or poster name changed. */
+    public FeedSnapshot getFeed() {
+        long current = feedVersion.get();
+        FeedSnapshot cached = feed;
+        if (cached != null && cached.version() == current) {
+            return cached;
+        }
+        FeedSnapshot built = buildFeed(current);
+        feed = built;
+        return built;
+    }
+
+    public void invalidateFeed() {
+        feedVersion.incrementAndGet();
+        // Again after commit, so a rebuild that raced the transaction does not stick
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    feedVersion.incrementAndGet();
+                }
+            });
+        }
     }
 
     public AnnouncementDto createAnnouncement(AnnouncementDto dto, Long userId) {
@@ -32,19 +80,53 @@ public class AnnouncementService {
                 .postedBy(userId)
                 .priority(dto.getPriority() != null ? dto.getPriority() : "Medium")
                 .build();
-        return mapToDto(announcementRepository.save(announcement));
+        Announcement saved = announcementRepository.save(announcement);
+        receiptService.track(saved.getId());
+        invalidateFeed();
+        return mapToDtos(List.of(saved)).get(0);
     }
 
     public void deleteAnnouncement(Long id) {
         announcementRepository.deleteById(id);
+        receiptService.forget(id);
+        invalidateFeed();
     }
 
-    private AnnouncementDto mapToDto(Announcement announcement) {
+    private FeedSnapshot buildFeed(long version) {
+        List<AnnouncementDto> announcements = List.copyOf(mapToDtos(announcementRepository.findAllByOrderByDateDesc()));
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(announcements);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            String etag = "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json), 0, 16)
+                    + "\"";
+            return new FeedSnapshot(version, announcements, json, compressed.toByteArray(), etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize announcement feed", e);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not compress announcement feed", e);
+        }
+    }
+
+    private List<AnnouncementDto> mapToDtos(List<Announcement> announcements) {
+        Set<Long> posterIds = new HashSet<>();
+        for (Announcement announcement : announcements) {
+            if (announcement.getPostedBy() != null)
+                posterIds.add(announcement.getPostedBy());
+        }
+        Map<Long, String> names = userRepository.findAllById(posterIds).stream()
+                .collect(Collectors.toMap(User::getId, u -> u.getFirstName() + " " + u.getLastName()));
+        return announcements.stream()
+                .map(announcement -> toDto(announcement, names))
+                .collect(Collectors.toList());
+    }
+
+    private AnnouncementDto toDto(Announcement announcement, Map<Long, String> names) {
         String posterName = "System";
         if (announcement.getPostedBy() != null) {
-            posterName = userRepository.findById(announcement.getPostedBy())
-                    .map(u -> u.getFirstName() + " " + u.getLastName())
-                    .orElse("Unknown");
+            posterName = names.getOrDefault(announcement.getPostedBy(), "Unknown");
         }
 
         return AnnouncementDto.builder()
@@ -56,4 +138,17 @@ public class AnnouncementService {
                 .priority(announcement.getPriority())
                 .build();
     }
+
+    /**
+     * One version of the feed. The byte arrays are never modified after
+     * construction; the gzipped variant's ETag carries a suffix so caches can
+     * tell the two encodings apart.
+     */
+    public record FeedSnapshot(long version, List<AnnouncementDto> announcements, byte[] json, byte[] gzipped,
+            String etag) {
+
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
 }
@@ -0,0 +1,195 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.AttendanceBoardDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.BoardEntryDto;
+import com.hrms.hrmsbackend.models.Attendance;
+import com.hrms.hrmsbackend.models.User;
+import com.hrms.hrmsbackend.models.enums.AttendanceStatus;
+import com.hrms.hrmsbackend.models.enums.UserStatus;
+import com.hrms.hrmsbackend.repositories.AttendanceRepository;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Today's attendance state per employee, kept in memory so the "who's in"
+ * board can be answered without touching the database. The board is rebuilt
+ * from the database at startup and at the Asia/Kolkata day rollover, and is
+ * kept current by check-in/check-out and employee roster changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceBoardService {
+
+    private final AttendanceRepository attendanceRepository;
+    private final UserRepository userRepository;
+    private final ZoneId zoneId = ZoneId.of("Asia/Kolkata");
+
+    private volatile DayBoard board = new DayBoard(LocalDate.MIN);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        reload();
+    }
+
+    @Scheduled(cron = "0 0 0 * * *", zone = "Asia/Kolkata")
+    public void rollover() {
+        reload();
+    }
+
+    public synchronized void reload() {
+        LocalDate today = LocalDate.now(zoneId);
+        DayBoard next = new DayBoard(today);
+
+        for (User user : userRepository.findByStatusNot(UserStatus.INACTIVE)) {
+            next.entries.put(user.getId(), Entry.absent(user.getId(), fullName(user)));
+        }
+        for (Attendance attendance : attendanceRepository.findByDate(today)) {
+            Entry existing = next.entries.get(attendance.getEmployeeId());
+            String name = existing != null ? existing.getEmployeeName() : lookupName(attendance.getEmployeeId());
+            next.entries.put(attendance.getEmployeeId(), Entry.of(attendance, name));
+        }
+
+        board = next;
+        log.info("Attendance board loaded for {} with {} employees", today, next.entries.size());
+    }
+
+    public void record(Attendance attendance) {
+        DayBoard current = current();
+        if (!current.date.equals(attendance.getDate())) {
+            return;
+        }
+        current.entries.compute(attendance.getEmployeeId(), (id, existing) -> Entry.of(attendance,
+                existing != null ? existing.getEmployeeName() : lookupName(id)));
+    }
+
+    public void registerEmployee(User user) {
+        if (user.getStatus() == UserStatus.INACTIVE) {
+            removeEmployee(user.getId());
+            return;
+        }
+        current().entries.compute(user.getId(), (id, existing) -> existing != null
+                ? existing.withEmployeeName(fullName(user))
+                : Entry.absent(id, fullName(user)));
+    }
+
+    public void removeEmployee(Long employeeId) {
+        current().entries.remove(employeeId);
+    }
+
+    public int countCheckedIn() {
+        return (int) current().entries.values().stream()
+                .filter(e -> e.getCheckIn() != null)
+                .count();
+    }
+
+    public AttendanceBoardDto getBoard() {
+        DayBoard current = current();
+        List<BoardEntryDto> present = new ArrayList<>();
+        List<BoardEntryDto> late = new ArrayList<>();
+        List<BoardEntryDto> absent = new ArrayList<>();
+        List<BoardEntryDto> checkedOut = new ArrayList<>();
+
+        current.entries.values().stream()
+                .sorted(Comparator.comparing(Entry::getEmployeeName, String.CASE_INSENSITIVE_ORDER))
+                .forEach(e -> {
+                    BoardEntryDto dto = e.toDto();
+                    if (e.getCheckOut() != null) {
+                        checkedOut.add(dto);
+                    } else if (e.getCheckIn() == null) {
+                        absent.add(dto);
+                    } else if (e.getStatus() == AttendanceStatus.LATE) {
+                        late.add(dto);
+                    } else {
+                        present.add(dto);
+                    }
+                });
+
+        return AttendanceBoardDto.builder()
+                .date(current.date.toString())
+                .presentCount(present.size())
+                .lateCount(late.size())
+                .absentCount(absent.size())
+                .checkedOutCount(checkedOut.size())
+                .present(present)
+                .late(late)
+                .absent(absent)
+                .checkedOut(checkedOut)
+                .build();
+    }
+
+    private DayBoard current() {
+        DayBoard current = board;
+        if (!current.date.equals(LocalDate.now(zoneId))) {
+            // Missed the scheduled rollover (e.g. first request after midnight)
+            reload();
+            current = board;
+        }
+        return current;
+    }
+
+    private String lookupName(Long employeeId) {
+        return userRepository.findById(employeeId)
+                .map(this::fullName)
+                .orElse("Unknown");
+    }
+
+    private String fullName(User user) {
+        return user.getFirstName() + " " + user.getLastName();
+    }
+
+    private static class DayBoard {
+        private final LocalDate date;
+        private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+        DayBoard(LocalDate date) {
+            this.date = date;
+        }
+    }
+
+    @Value
+    private static class Entry {
+        Long employeeId;
+        String employeeName;
+        LocalTime checkIn;
+        LocalTime checkOut;
+        AttendanceStatus status;
+
+        static Entry absent(Long employeeId, String employeeName) {
+            return new Entry(employeeId, employeeName, null, null, null);
+        }
+
+        static Entry of(Attendance attendance, String employeeName) {
+            return new Entry(attendance.getEmployeeId(), employeeName, attendance.getCheckIn(),
+                    attendance.getCheckOut(), attendance.getStatus());
+        }
+
+        Entry withEmployeeName(String name) {
+            return new Entry(employeeId, name, checkIn, checkOut, status);
+        }
+
+        BoardEntryDto toDto() {
+            return BoardEntryDto.builder()
+                    .employeeId(employeeId.toString())
+                    .employeeName(employeeName)
+                    .checkIn(checkIn != null ? checkIn.toString() : null)
+                    .checkOut(checkOut != null ? checkOut.toString() : null)
+                    .status(status != null ? status.name().toLowerCase() : "absent")
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.DayCloseResultDto;
+import com.hrms.hrmsbackend.models.enums.UserStatus;
+import com.hrms.hrmsbackend.repositories.AttendanceRepository;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Closes an attendance day for the whole workforce: open records are checked
+ * out at the configured time with hours computed, and on working days
+ * employees without a record get an ON_LEAVE (approved leave covering the
+ * day) or ABSENT row.
+ * Every step is a set-based statement over a batch of employee ids, each batch
+ * in its own transaction, so the job is safe to re-run for the same day.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceDayCloseService {
+
+    private static final String AUTO_CHECKOUT_NOTE = "Auto checked out at day close";
+
+    private final AttendanceRepository attendanceRepository;
+    private final UserRepository userRepository;
+    private final AttendanceBoardService attendanceBoardService;
+    private final TimesheetService timesheetService;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final TransactionTemplate transactionTemplate;
+    private final ZoneId zoneId = ZoneId.of("Asia/Kolkata");
+
+    @Value("${app.attendance.auto-checkout-time:19:00}")
+    private String autoCheckoutTime;
+
+    @Value("${app.attendance.day-close.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${app.attendance.day-close.cron:0 30 23 * * *}", zone = "Asia/Kolkata")
+    public void closeToday() {
+        closeDay(LocalDate.now(zoneId));
+    }
+
+    public DayCloseResultDto closeDay(LocalDate date) {
+        if (date.isAfter(LocalDate.now(zoneId))) {
+            throw new RuntimeException("Cannot close a day in the future");
+        }
+
+        LocalTime closeAt = LocalTime.parse(autoCheckoutTime);
+        int closeMinutes = closeAt.getHour() * 60 + closeAt.getMinute();
+        List<Long> employeeIds = userRepository.findIdsByStatusNot(UserStatus.INACTIVE);
+        boolean workingDay = workingDayCalendar.isWorkingDay(date);
+        int[] totals = new int[3];
+
+        for (int from = 0; from < employeeIds.size(); from += batchSize) {
+            List<Long> batch = employeeIds.subList(from, Math.min(from + batchSize, employeeIds.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                totals[0] += attendanceRepository.autoCheckOut(date, batch, closeAt, closeMinutes,
+                        AUTO_CHECKOUT_NOTE);
+                totals[0] += attendanceRepository.closeLateCheckIns(date, batch, AUTO_CHECKOUT_NOTE);
+                if (workingDay) {
+                    totals[1] += attendanceRepository.insertOnLeave(date, batch);
+                    totals[2] += attendanceRepository.insertAbsent(date, batch);
+                }
+            });
+        }
+
+        timesheetService.invalidateRange(date, date);
+        if (date.equals(LocalDate.now(zoneId))) {
+            attendanceBoardService.reload();
+        }
+
+        log.info("Day close for {}: {} auto checked out, {} on leave, {} absent", date, totals[0], totals[1],
+                totals[2]);
+        return DayCloseResultDto.builder()
+                .date(date.toString())
+                .autoCheckedOut(totals[0])
+                .markedOnLeave(totals[1])
+                .markedAbsent(totals[2])
+                .build();
+    }
+}
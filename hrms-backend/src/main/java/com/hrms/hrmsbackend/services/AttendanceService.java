@@ -20,6 +20,9 @@ public class AttendanceService {
 
     private final AttendanceRepository attendanceRepository;
     private final UserRepository userRepository;
+    private final AttendanceBoardService attendanceBoardService;
+    private final TimesheetService timesheetService;
+    private final OptimisticRetry optimisticRetry;
     private final ZoneId zoneId = ZoneId.of("Asia/Kolkata");
 
     public List<AttendanceDto> getAllAttendance() {
@@ -55,10 +58,18 @@ public class AttendanceService {
                 .checkIn(now)
                 .status(status)
                 .build();
-        return mapToDto(attendanceRepository.save(attendance));
+        Attendance saved = attendanceRepository.save(attendance);
+        attendanceBoardService.record(saved);
+        timesheetService.invalidateEmployee(employeeId, today, today);
+        return mapToDto(saved);
     }
 
+    // Retried so a check-out racing the day-close job re-reads the closed record
     public AttendanceDto checkOut(Long employeeId) {
+        return optimisticRetry.run("Attendance of employee " + employeeId, () -> applyCheckOut(employeeId));
+    }
+
+    private AttendanceDto applyCheckOut(Long employeeId) {
         LocalDate today = LocalDate.now(zoneId);
 
         Attendance attendance = attendanceRepository.findByEmployeeIdAndDate(employeeId, today)
@@ -74,7 +85,10 @@ public class AttendanceService {
             long minutes = java.time.Duration.between(attendance.getCheckIn(), attendance.getCheckOut()).toMinutes();
             attendance.setHoursWorked(minutes / 60.0);
         }
-        return mapToDto(attendanceRepository.save(attendance));
+        Attendance saved = attendanceRepository.save(attendance);
+        attendanceBoardService.record(saved);
+        timesheetService.invalidateEmployee(employeeId, today, today);
+        return mapToDto(saved);
     }
 
     private AttendanceDto mapToDto(Attendance att) {
@@ -92,10 +106,13 @@ public class AttendanceService {
                 .hoursWorked(att.getHoursWorked())
                 .status(att.getStatus().name().toLowerCase())
                 .notes(att.getNotes())
+                .version(att.getVersion())
                 .build();
     }
 
     public void resetAttendance() {
         attendanceRepository.deleteAll();
+        attendanceBoardService.reload();
+        timesheetService.invalidateAll();
     }
 }
@@ -19,6 +19,8 @@ public class AuthenticationService {
     private final UserRepository userRepository;
     private final DepartmentRepository departmentRepository;
     private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
+    private final AttendanceBoardService attendanceBoardService;
+    private final FileDownloadService fileDownloadService;
 
     public AuthenticationResponse register(RegisterRequest request) {
         var user = User.builder()
@@ -35,6 +37,7 @@ public class AuthenticationService {
                 .build();
 
         var savedUser = userRepository.save(user);
+        attendanceBoardService.registerEmployee(savedUser);
 
         return AuthenticationResponse.builder()
                 .token("dummy-token")
@@ -80,7 +83,8 @@ public class AuthenticationService {
                 .lastName(user.getLastName())
                 .email(user.getEmail())
                 .role(user.getRole().name().toLowerCase())
-                .avatar(user.getAvatar())
+                .avatar(fileDownloadService.avatarUrl(user))
+                .avatarRenditions(fileDownloadService.avatarRenditionUrls(user))
                 .department(deptName)
                 .isFirstLogin(user.isFirstLogin())
                 .build();
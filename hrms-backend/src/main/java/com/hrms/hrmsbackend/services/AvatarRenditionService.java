@@ -0,0 +1,279 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.models.StoredBlob;
+import com.hrms.hrmsbackend.models.User;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds small square JPEG renditions of uploaded avatars on a bounded
+ * background pool, so lists and cards never load the original photo. Each
+ * rendition is an ordinary blob; the set is recorded on the user only if the
+ * avatar it was made from is still current, and the renditions it replaces
+ * are released.
+ */
+@Service
+@Slf4j
+public class AvatarRenditionService {
+
+    /** Edge lengths in pixels, smallest first. */
+    public static final int[] SIZES = { 32, 64, 256 };
+
+    private static final String JPEG = "image/jpeg";
+
+    private final UserRepository userRepository;
+    private final BlobStorageService blobStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    @Value("${app.avatars.renditions.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${app.avatars.renditions.max-pixels:50000000}")
+    private long maxPixels;
+
+    public AvatarRenditionService(UserRepository userRepository, BlobStorageService blobStorageService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.avatars.renditions.threads:2}") int threads,
+            @Value("${app.avatars.renditions.queue-capacity:100}") int queueCapacity) {
+        this.userRepository = userRepository;
+        this.blobStorageService = blobStorageService;
+        // Publishing commits on its own, whatever transaction the calling thread may still be bound to
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger counter = new AtomicInteger();
+        // A full queue rejects the job (see schedule); renderMissing picks the avatar up later
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "avatar-renditions-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Queues renditions for the user's avatar once the surrounding transaction commits. */
+    public void schedule(Long userId, String avatarRef) {
+        if (BlobStorageService.hashOf(avatarRef) == null) {
+            return; // external URL: nothing stored to resize
+        }
+        Runnable submit = () -> {
+            try {
+                executor.execute(() -> render(userId, avatarRef));
+            } catch (RejectedExecutionException e) {
+                log.warn("Avatar rendition queue is full, user {} keeps the original until the next backfill", userId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    /**
+     * Renders, on the calling thread, every stored avatar that has no
+     * renditions yet, e.g. because the queue was full when it was uploaded.
+     * Returns the number of avatars tried.
+     */
+    public int renderMissing(int batchSize) {
+        int tried = 0;
+        long afterId = 0;
+        List<User> batch;
+        do {
+            batch = userRepository.findAvatarsWithoutRenditions(afterId, PageRequest.of(0, batchSize));
+            for (User user : batch) {
+                afterId = user.getId();
+                render(user.getId(), user.getAvatar());
+                tried++;
+            }
+        } while (batch.size() == batchSize);
+        return tried;
+    }
+
+    /** Clears the user's renditions and releases their blobs; call when the avatar is replaced. */
+    public void releaseRenditions(User user) {
+        for (String hash : parse(user.getAvatarRenditions()).values()) {
+            blobStorageService.release(hash);
+        }
+        user.setAvatarRenditions(null);
+    }
+
+    /** Parses the avatarRenditions column into size -> blob hash. */
+    public static Map<Integer, String> parse(String renditions) {
+        Map<Integer, String> bySize = new LinkedHashMap<>();
+        if (renditions == null || renditions.isEmpty()) {
+            return bySize;
+        }
+        for (String entry : renditions.split(",")) {
+            int colon = entry.indexOf(':');
+            bySize.put(Integer.parseInt(entry.substring(0, colon)), entry.substring(colon + 1));
+        }
+        return bySize;
+    }
+
+    private void render(Long userId, String avatarRef) {
+        try {
+            Path source = blobStorageService.pathOf(BlobStorageService.hashOf(avatarRef));
+            BufferedImage image = read(source);
+            if (image == null) {
+                log.info("Avatar of user {} is not a readable image, keeping original only", userId);
+                return;
+            }
+            BufferedImage square = cropSquare(image);
+            Map<Integer, byte[]> encoded = new LinkedHashMap<>();
+            for (int size : SIZES) {
+                encoded.put(size, encodeJpeg(scale(square, size)));
+            }
+            transactionTemplate.executeWithoutResult(status -> publish(userId, avatarRef, encoded, status));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not build avatar renditions for user {}", userId, e);
+        }
+    }
+
+    private void publish(Long userId, String avatarRef, Map<Integer, byte[]> encoded, TransactionStatus status) {
+        Optional<String> previous = userRepository.findAvatarRenditions(userId, avatarRef);
+        // Superseded while we were resizing: the newer upload has its own job queued
+        if (previous.isEmpty() && !userRepository.existsByIdAndAvatar(userId, avatarRef)) {
+            return;
+        }
+        StringBuilder column = new StringBuilder();
+        try {
+            for (Map.Entry<Integer, byte[]> entry : encoded.entrySet()) {
+                StoredBlob blob = blobStorageService.store(new ByteArrayInputStream(entry.getValue()), JPEG);
+                if (column.length() > 0) {
+                    column.append(',');
+                }
+                column.append(entry.getKey()).append(':').append(blob.getHash());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store avatar rendition", e);
+        }
+        // Only the renditions column is written, so a profile edit made meanwhile is not overwritten
+        String old = previous.orElse(null);
+        if (userRepository.replaceAvatarRenditions(userId, avatarRef, old, column.toString()) == 0) {
+            status.setRollbackOnly(); // superseded after all; drop the references taken above
+            return;
+        }
+        for (String hash : parse(old).values()) {
+            blobStorageService.release(hash);
+        }
+    }
+
+    // Subsampled decode: a phone photo is read at a few times the largest rendition, not full size
+    private BufferedImage read(Path source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.info("Avatar image of {}x{} exceeds the decode limit", width, height);
+                    return null;
+                }
+                int largest = SIZES[SIZES.length - 1];
+                int step = Math.max(1, Math.min(width, height) / (largest * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage cropSquare(BufferedImage image) {
+        int edge = Math.min(image.getWidth(), image.getHeight());
+        return image.getSubimage((image.getWidth() - edge) / 2, (image.getHeight() - edge) / 2, edge, edge);
+    }
+
+    // Halves in steps before the final bilinear pass, which keeps downscaled photos from aliasing
+    private static BufferedImage scale(BufferedImage square, int size) {
+        BufferedImage current = square;
+        int edge = square.getWidth();
+        do {
+            edge = Math.max(size, edge / 2);
+            BufferedImage next = new BufferedImage(edge, edge, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setColor(Color.WHITE); // JPEG has no alpha; transparent areas become white
+                g.fillRect(0, 0, edge, edge);
+                g.drawImage(current, 0, 0, edge, edge, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (edge > size);
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
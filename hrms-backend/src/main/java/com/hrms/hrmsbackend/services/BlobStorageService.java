@@ -0,0 +1,258 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.exceptions.ConflictException;
+import com.hrms.hrmsbackend.models.StoredBlob;
+import com.hrms.hrmsbackend.repositories.StoredBlobRepository;
+import com.hrms.hrmsbackend.storage.BlobStore;
+import com.hrms.hrmsbackend.storage.StagedBlob;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reference-counted content-addressed uploads on top of the {@link BlobStore}.
+ * An upload is staged and hashed in one pass; it is then either published as
+ * a new blob or, when that content is already stored, dropped while the
+ * existing blob's reference count goes up.
+ * Reference changes must run inside the caller's transaction; blobs are only
+ * deleted after that transaction commits. On MySQL and PostgreSQL a new
+ * reference is one upsert statement; elsewhere the row is first claimed in
+ * its own transaction and then incremented. Either way concurrent uploads of
+ * the same new content share one row instead of colliding on the unique hash.
+ * The file is published only once the reference is secured, and a release
+ * leaves it alone while any upload of the same content is still in flight.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BlobStorageService {
+
+    /** Prefix for columns that hold a blob reference instead of a URL, e.g. User.avatar. */
+    public static final String REF_PREFIX = "blob:";
+
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final BlobStore blobStore;
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+
+    // Serializes publishing a file against deleting it once its row is gone
+    private final Object refLock = new Object();
+    // Hashes with a registration whose transaction has not completed yet, guarded by refLock.
+    // Their rows may be uncommitted and invisible to a release, which must then keep the file.
+    private final Map<String, Integer> inFlight = new HashMap<>();
+
+    private Upsert upsert;
+    private TransactionTemplate claimTemplate;
+
+    @PostConstruct
+    void detectUpsert() {
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            upsert = switch (product) {
+                case "MySQL", "MariaDB" -> storedBlobRepository::upsertMySql;
+                case "PostgreSQL" -> storedBlobRepository::upsertPostgres;
+                default -> null;
+            };
+            log.info("Blob references on {}: {}", product, upsert != null ? "upsert" : "claim-then-increment");
+        } catch (SQLException e) {
+            log.warn("Could not detect database, using claim-then-increment for blob references", e);
+        }
+        claimTemplate = new TransactionTemplate(transactionManager);
+        claimTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public StoredBlob store(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return store(in, file.getContentType());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store file " + file.getOriginalFilename(), e);
+        }
+    }
+
+    public StoredBlob store(InputStream content, String contentType) throws IOException {
+        StagedBlob staged = blobStore.stage(content);
+        try {
+            return register(staged, contentType);
+        } finally {
+            blobStore.discard(staged); // no-op once committed
+        }
+    }
+
+    /** Publishes staged content, or adds a reference if the same content is already stored. */
+    public StoredBlob register(StagedBlob staged, String contentType) throws IOException {
+        String hash = staged.getHash();
+        synchronized (refLock) {
+            inFlight.merge(hash, 1, Integer::sum);
+        }
+        afterCompletion(committed -> complete(hash, committed));
+        // The statements run outside refLock: they can wait on another uploader's row lock, and that
+        // uploader may need refLock to release a blob in the same transaction.
+        StoredBlob blob = secureReference(staged, contentType);
+        synchronized (refLock) {
+            // Publishing is idempotent for content-addressed files. The file may have been deleted by a
+            // release that committed before this registration began, so the staged copy is kept until here.
+            blobStore.commit(staged);
+        }
+        return blob;
+    }
+
+    private StoredBlob secureReference(StagedBlob staged, String contentType) {
+        if (upsert != null) {
+            upsert.apply(staged.getHash(), staged.getSize(), contentType, LocalDateTime.now());
+            return storedBlobRepository.findByHash(staged.getHash()).orElseThrow();
+        }
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            claim(staged, contentType);
+            // Waits here on a concurrent uploader's uncommitted increment instead of inserting a duplicate
+            if (storedBlobRepository.incrementRefCount(staged.getHash()) > 0) {
+                return storedBlobRepository.findByHash(staged.getHash()).orElseThrow();
+            }
+            // The row was released to zero and deleted between claim and increment
+        }
+        throw new ConflictException("Could not register blob " + staged.getHash() + ", try again");
+    }
+
+    /**
+     * Ends a registration. After a rollback, a claim row left with no
+     * references and a file no row points at are removed, unless another
+     * registration of the same content is still running.
+     */
+    private void complete(String hash, boolean committed) {
+        synchronized (refLock) {
+            if (inFlight.merge(hash, -1, Integer::sum) > 0) {
+                return;
+            }
+            inFlight.remove(hash);
+            if (committed) {
+                return;
+            }
+            boolean orphaned;
+            try {
+                orphaned = Boolean.TRUE.equals(claimTemplate.execute(status -> {
+                    storedBlobRepository.deleteIfUnreferenced(hash);
+                    return storedBlobRepository.findByHash(hash).isEmpty();
+                }));
+            } catch (RuntimeException e) {
+                log.warn("Could not drop unreferenced blob row {}", hash, e);
+                return;
+            }
+            if (orphaned) {
+                deleteQuietly(hash);
+            }
+        }
+    }
+
+    /**
+     * Makes sure a row for the hash exists, committed on its own with no
+     * references, so the caller's transaction only ever increments. A
+     * duplicate means another upload got there first and is ignored.
+     */
+    private void claim(StagedBlob staged, String contentType) {
+        try {
+            claimTemplate.executeWithoutResult(status -> {
+                if (storedBlobRepository.findByHash(staged.getHash()).isEmpty()) {
+                    storedBlobRepository.saveAndFlush(StoredBlob.builder()
+                            .hash(staged.getHash())
+                            .size(staged.getSize())
+                            .contentType(contentType)
+                            .refCount(0)
+                            .build());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Blob {} claimed concurrently", staged.getHash());
+        }
+    }
+
+    /** Drops one reference to a blob; the content goes once nothing points at it. */
+    public void release(String hash) {
+        if (hash == null) {
+            return;
+        }
+        storedBlobRepository.decrementRefCount(hash);
+        if (storedBlobRepository.deleteIfUnreferenced(hash) > 0) {
+            afterCommit(() -> {
+                synchronized (refLock) {
+                    // Re-uploaded in the meantime: the new row owns the content again
+                    if (!inFlight.containsKey(hash) && storedBlobRepository.findByHash(hash).isEmpty()) {
+                        deleteQuietly(hash);
+                    }
+                }
+            });
+        }
+    }
+
+    public Path pathOf(String hash) {
+        return blobStore.path(hash);
+    }
+
+    public static String ref(String hash) {
+        return REF_PREFIX + hash;
+    }
+
+    /** The hash behind a "blob:" reference, or null for anything else. */
+    public static String hashOf(String ref) {
+        return ref != null && ref.startsWith(REF_PREFIX) ? ref.substring(REF_PREFIX.length()) : null;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /** Runs the action once the caller's transaction completes, or right away without one. */
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Upsert {
+        int apply(String hash, Long size, String contentType, LocalDateTime createdAt);
+    }
+
+    private void deleteQuietly(String hash) {
+        try {
+            blobStore.delete(hash);
+        } catch (IOException e) {
+            log.warn("Could not delete blob {}", hash, e);
+        }
+    }
+}
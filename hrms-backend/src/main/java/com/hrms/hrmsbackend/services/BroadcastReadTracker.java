@@ -0,0 +1,130 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.models.MessageReadCursor;
+import com.hrms.hrmsbackend.repositories.MessageReadCursorRepository;
+import com.hrms.hrmsbackend.repositories.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-user read state for broadcast messages, which are stored once with no
+ * receiver and the broadcast flag set. Each user has a read cursor (the highest broadcast id they have
+ * read); the broadcast ids are kept sorted in memory, so a user's unread
+ * count is a binary search instead of a per-user row per broadcast.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BroadcastReadTracker {
+
+    private final MessageRepository messageRepository;
+    private final MessageReadCursorRepository messageReadCursorRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] broadcastIds = new long[16];
+    private int size;
+
+    private final Map<Long, Long> cursors = new ConcurrentHashMap<>();
+    // One per user, so only a user's own first reads wait on each other to create the cursor row
+    private final Map<Long, Object> userLocks = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<Long> ids = messageRepository.findBroadcastIds();
+        List<MessageReadCursor> loaded = messageReadCursorRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            broadcastIds = new long[Math.max(16, ids.size() * 2)];
+            size = 0;
+            for (Long id : ids) {
+                broadcastIds[size++] = id;
+            }
+            cursors.clear();
+            for (MessageReadCursor cursor : loaded) {
+                cursors.put(cursor.getUserId(), cursor.getLastReadBroadcastId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Broadcast read tracker loaded {} broadcasts and {} cursors", ids.size(), loaded.size());
+    }
+
+    /** Records a committed broadcast; its sender has read it by definition. */
+    public void recordBroadcast(Long messageId, Long senderId) {
+        lock.writeLock().lock();
+        try {
+            // Ids almost always arrive in order; concurrent sends may swap neighbours
+            int at = Arrays.binarySearch(broadcastIds, 0, size, messageId);
+            if (at < 0) {
+                at = -at - 1;
+                if (size == broadcastIds.length) {
+                    broadcastIds = Arrays.copyOf(broadcastIds, size * 2);
+                }
+                System.arraycopy(broadcastIds, at, broadcastIds, at + 1, size - at);
+                broadcastIds[at] = messageId;
+                size++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        markRead(senderId, messageId);
+    }
+
+    public long lastRead(Long userId) {
+        return cursors.getOrDefault(userId, 0L);
+    }
+
+    public long latestBroadcastId() {
+        lock.readLock().lock();
+        try {
+            return size == 0 ? 0 : broadcastIds[size - 1];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long unread(Long userId) {
+        long cursor = lastRead(userId);
+        lock.readLock().lock();
+        try {
+            int at = Arrays.binarySearch(broadcastIds, 0, size, cursor);
+            int firstUnread = at >= 0 ? at + 1 : -at - 1;
+            return size - firstUnread;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Moves the user's cursor forward to messageId; never backwards. */
+    public void markRead(Long userId, long messageId) {
+        if (messageId <= lastRead(userId)) {
+            return;
+        }
+        synchronized (userLocks.computeIfAbsent(userId, id -> new Object())) {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                if (messageReadCursorRepository.advance(userId, messageId, now) == 0
+                        && !messageReadCursorRepository.existsByUserId(userId)) {
+                    messageReadCursorRepository.save(MessageReadCursor.builder()
+                            .userId(userId)
+                            .lastReadBroadcastId(messageId)
+                            .updatedAt(now)
+                            .build());
+                }
+            });
+            cursors.merge(userId, messageId, Math::max);
+        }
+    }
+}
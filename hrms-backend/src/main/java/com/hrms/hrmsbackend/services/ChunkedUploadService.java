@@ -0,0 +1,367 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.UploadCompleteDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.UploadInitDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.UploadSessionDto;
+import com.hrms.hrmsbackend.exceptions.ConflictException;
+import com.hrms.hrmsbackend.exceptions.ResourceNotFoundException;
+import com.hrms.hrmsbackend.models.Document;
+import com.hrms.hrmsbackend.models.StoredBlob;
+import com.hrms.hrmsbackend.models.UploadSession;
+import com.hrms.hrmsbackend.models.enums.DocumentType;
+import com.hrms.hrmsbackend.models.enums.UploadSessionStatus;
+import com.hrms.hrmsbackend.repositories.UploadSessionRepository;
+import com.hrms.hrmsbackend.storage.BlobStore;
+import com.hrms.hrmsbackend.storage.StagedBlob;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable chunked document uploads. A session preallocates a part file of
+ * the announced size; each chunk is streamed straight to its offset
+ * (index * chunkSize) with positional writes, hashed on the way and only
+ * recorded in the session bitmap once its length and checksum match, so a
+ * failed or interrupted chunk is simply sent again. Completing hands the part
+ * file to the blob store, which hashes it and publishes it with an atomic
+ * rename, and records the document.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedUploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final BlobStore blobStore;
+    private final BlobStorageService blobStorageService;
+    private final DocumentService documentService;
+    private final OptimisticRetry optimisticRetry;
+    private final TransactionTemplate transactionTemplate;
+
+    // Upload ids currently being completed, so two complete calls cannot both stage the file
+    private final Set<String> completing = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.uploads.chunked.dir:uploads/chunked}")
+    private String partDir;
+
+    @Value("${app.uploads.chunked.chunk-size:8388608}")
+    private int chunkSize;
+
+    @Value("${app.uploads.chunked.max-size:2147483648}")
+    private long maxSize;
+
+    @Value("${app.uploads.chunked.expiry-hours:24}")
+    private long expiryHours;
+
+    private Path partRoot;
+
+    @PostConstruct
+    void init() throws IOException {
+        partRoot = Paths.get(partDir).toAbsolutePath().normalize();
+        Files.createDirectories(partRoot);
+    }
+
+    public UploadSessionDto initiate(UploadInitDto dto) {
+        if (dto.getEmployeeId() == null || dto.getType() == null) {
+            throw new RuntimeException("employeeId and type are required");
+        }
+        if (dto.getFileName() == null || dto.getFileName().isBlank()) {
+            throw new RuntimeException("fileName is required");
+        }
+        if (dto.getTotalSize() == null || dto.getTotalSize() <= 0 || dto.getTotalSize() > maxSize) {
+            throw new RuntimeException("totalSize must be between 1 and " + maxSize + " bytes");
+        }
+        DocumentType type = DocumentType.valueOf(dto.getType().toUpperCase());
+        long totalChunks = (dto.getTotalSize() + chunkSize - 1) / chunkSize;
+
+        String uploadId = UUID.randomUUID().toString();
+        Path part = partPath(uploadId);
+        // Reserve the full size up front; chunks then only overwrite in place
+        try (RandomAccessFile file = new RandomAccessFile(part.toFile(), "rw")) {
+            file.setLength(dto.getTotalSize());
+        } catch (IOException e) {
+            deleteQuietly(part);
+            throw new RuntimeException("Could not allocate upload of " + dto.getTotalSize() + " bytes", e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession session = UploadSession.builder()
+                .uploadId(uploadId)
+                .employeeId(Long.parseLong(dto.getEmployeeId()))
+                .documentType(type)
+                .fileName(dto.getFileName())
+                .contentType(dto.getContentType())
+                .isGlobal(dto.getIsGlobal())
+                .totalSize(dto.getTotalSize())
+                .chunkSize(chunkSize)
+                .totalChunks((int) totalChunks)
+                .receivedChunks(new byte[0])
+                .status(UploadSessionStatus.ACTIVE)
+                .createdAt(now)
+                .expiresAt(now.plusHours(expiryHours))
+                .build();
+        return mapToDto(uploadSessionRepository.save(session));
+    }
+
+    public UploadSessionDto getStatus(String uploadId) {
+        return mapToDto(findSession(uploadId));
+    }
+
+    /**
+     * Writes one chunk at its offset. The chunk must be exactly chunkSize bytes
+     * (the last one takes the remainder); when sha256 is given it must match the
+     * received bytes. Re-sending a chunk overwrites it, so retries are safe.
+     */
+    public UploadSessionDto putChunk(String uploadId, int index, String sha256, InputStream content) {
+        UploadSession session = findActiveSession(uploadId);
+        if (index < 0 || index >= session.getTotalChunks()) {
+            throw new RuntimeException("Chunk index must be between 0 and " + (session.getTotalChunks() - 1));
+        }
+        long offset = (long) index * session.getChunkSize();
+        long expected = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+
+        String actual;
+        try {
+            actual = writeChunk(partPath(uploadId), offset, expected, content, index);
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Upload " + uploadId + " has no part file");
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write chunk " + index + " of upload " + uploadId, e);
+        }
+        if (sha256 != null && !sha256.equalsIgnoreCase(actual)) {
+            throw new RuntimeException("Checksum mismatch for chunk " + index + ", resend it");
+        }
+
+        // Chunks land in parallel, so the bitmap update is retried on version conflicts
+        return optimisticRetry.run("Upload " + uploadId, () -> {
+            UploadSession current = findActiveSession(uploadId);
+            BitSet received = BitSet.valueOf(current.getReceivedChunks());
+            received.set(index);
+            current.setReceivedChunks(received.toByteArray());
+            current.setExpiresAt(LocalDateTime.now().plusHours(expiryHours));
+            return mapToDto(uploadSessionRepository.save(current));
+        });
+    }
+
+    /**
+     * Publishes the assembled file once every chunk is in. Calling it again on a
+     * completed upload returns the same document.
+     */
+    public UploadSessionDto complete(String uploadId, UploadCompleteDto dto) {
+        UploadSession session = findSession(uploadId);
+        if (session.getStatus() == UploadSessionStatus.COMPLETED) {
+            return mapToDto(session);
+        }
+        int missing = session.getTotalChunks() - BitSet.valueOf(session.getReceivedChunks()).cardinality();
+        if (missing > 0) {
+            throw new RuntimeException("Upload is missing " + missing + " of " + session.getTotalChunks()
+                    + " chunks");
+        }
+        if (!completing.add(uploadId)) {
+            throw new ConflictException("Upload " + uploadId + " is already being completed");
+        }
+        try {
+            // Re-read once claimed: the session may have expired and been purged meanwhile
+            return publish(findSession(uploadId), dto != null ? dto.getSha256() : null);
+        } finally {
+            completing.remove(uploadId);
+        }
+    }
+
+    private UploadSessionDto publish(UploadSession session, String expectedHash) {
+        Path part = partPath(session.getUploadId());
+        StagedBlob staged;
+        try {
+            staged = blobStore.stage(part);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not stage upload " + session.getUploadId(), e);
+        }
+
+        boolean published = false;
+        try {
+            if (expectedHash != null && !expectedHash.equalsIgnoreCase(staged.getHash())) {
+                // Every chunk passed on its own, so the client cannot tell which one is wrong
+                resetChunks(session.getUploadId());
+                throw new RuntimeException("File checksum mismatch, all chunks must be sent again");
+            }
+            UploadSessionDto result = transactionTemplate.execute(status -> {
+                try {
+                    StoredBlob blob = blobStorageService.register(staged, session.getContentType());
+                    Document doc = documentService.createFromBlob(blob, session.getEmployeeId(),
+                            session.getDocumentType(), session.getFileName(), session.getIsGlobal());
+                    UploadSession current = findSession(session.getUploadId());
+                    current.setStatus(UploadSessionStatus.COMPLETED);
+                    current.setDocumentId(doc.getId());
+                    return mapToDto(uploadSessionRepository.save(current));
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not store upload " + session.getUploadId(), e);
+                }
+            });
+            published = true;
+            return result;
+        } finally {
+            if (published) {
+                blobStore.discard(staged); // no-op when the content was new and got committed
+            } else {
+                restorePart(staged, part);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.uploads.chunked.cleanup-cron:0 15 * * * *}", zone = "Asia/Kolkata")
+    public void purgeExpired() {
+        List<UploadSession> expired = uploadSessionRepository.findByStatusAndExpiresAtBefore(
+                UploadSessionStatus.ACTIVE, LocalDateTime.now());
+        int purged = 0;
+        for (UploadSession session : expired) {
+            // Completed sessions keep their row so a repeated complete still answers with the document;
+            // one being completed right now owns its part file until publish returns
+            if (!completing.add(session.getUploadId())) {
+                continue;
+            }
+            try {
+                Integer deleted = transactionTemplate.execute(status ->
+                        uploadSessionRepository.deleteByIdAndStatus(session.getId(), UploadSessionStatus.ACTIVE));
+                if (deleted != null && deleted > 0) {
+                    deleteQuietly(partPath(session.getUploadId()));
+                    purged++;
+                }
+            } finally {
+                completing.remove(session.getUploadId());
+            }
+        }
+        if (purged > 0) {
+            log.info("Purged {} expired upload sessions", purged);
+        }
+    }
+
+    private String writeChunk(Path part, long offset, long expected, InputStream content, int index)
+            throws IOException {
+        MessageDigest digest = sha256();
+        long written = 0;
+        try (ReadableByteChannel source = Channels.newChannel(content);
+                FileChannel target = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                if (written + buffer.remaining() > expected) {
+                    throw new RuntimeException("Chunk " + index + " must be " + expected + " bytes");
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    written += target.write(buffer, offset + written);
+                }
+                buffer.clear();
+            }
+            if (written != expected) {
+                throw new RuntimeException("Chunk " + index + " must be " + expected + " bytes, got " + written);
+            }
+            target.force(false);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void resetChunks(String uploadId) {
+        optimisticRetry.run("Upload " + uploadId, () -> {
+            UploadSession current = findSession(uploadId);
+            current.setReceivedChunks(new byte[0]);
+            return uploadSessionRepository.save(current);
+        });
+    }
+
+    // Puts the file back so a failed completion can be retried without re-sending chunks
+    private void restorePart(StagedBlob staged, Path part) {
+        try {
+            if (Files.exists(staged.getStagingPath())) {
+                Files.move(staged.getStagingPath(), part);
+            }
+        } catch (IOException e) {
+            log.warn("Could not restore part file {}", part, e);
+        }
+    }
+
+    private UploadSession findSession(String uploadId) {
+        return uploadSessionRepository.findByUploadId(uploadId)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload " + uploadId + " not found"));
+    }
+
+    private UploadSession findActiveSession(String uploadId) {
+        UploadSession session = findSession(uploadId);
+        if (session.getStatus() != UploadSessionStatus.ACTIVE) {
+            throw new ConflictException("Upload " + uploadId + " is already completed");
+        }
+        if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new ResourceNotFoundException("Upload " + uploadId + " has expired");
+        }
+        return session;
+    }
+
+    private Path partPath(String uploadId) {
+        return partRoot.resolve(uploadId + ".part");
+    }
+
+    private UploadSessionDto mapToDto(UploadSession session) {
+        BitSet received = BitSet.valueOf(session.getReceivedChunks());
+        List<Integer> chunks = new ArrayList<>(received.cardinality());
+        for (int i = received.nextSetBit(0); i >= 0; i = received.nextSetBit(i + 1)) {
+            chunks.add(i);
+        }
+        return UploadSessionDto.builder()
+                .uploadId(session.getUploadId())
+                .fileName(session.getFileName())
+                .totalSize(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .totalChunks(session.getTotalChunks())
+                .receivedChunks(chunks)
+                .status(session.getStatus().name().toLowerCase())
+                .expiresAt(session.getExpiresAt().toString())
+                .document(session.getDocumentId() != null ? documentService.getDocument(session.getDocumentId())
+                        : null)
+                .build();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
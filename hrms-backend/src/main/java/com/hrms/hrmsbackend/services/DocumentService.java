@@ -1,36 +1,81 @@
 package com.hrms.hrmsbackend.services;
 
 import com.hrms.hrmsbackend.dtos.CoreDtos.DocumentDto;
+import com.hrms.hrmsbackend.exceptions.ResourceNotFoundException;
 import com.hrms.hrmsbackend.models.Document;
+import com.hrms.hrmsbackend.models.StoredBlob;
+import com.hrms.hrmsbackend.models.User;
 import com.hrms.hrmsbackend.models.enums.DocumentStatus;
 import com.hrms.hrmsbackend.models.enums.DocumentType;
 import com.hrms.hrmsbackend.repositories.DocumentRepository;
 import com.hrms.hrmsbackend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+/**
+ * Document records and uploads. Global documents appear on every employee's
+ * list, so they are held in memory and re-read only after a write that could
+ * change them; an employee's own documents come from an indexed query.
+ */
 @Service
 @RequiredArgsConstructor
 public class DocumentService {
 
     private final DocumentRepository documentRepository;
     private final UserRepository userRepository;
+    private final BlobStorageService blobStorageService;
+    private final FileDownloadService fileDownloadService;
+
+    private final AtomicLong globalVersion = new AtomicLong();
+    private volatile GlobalDocuments globalDocuments;
 
     public List<DocumentDto> getAllDocuments() {
-        return documentRepository.findAll().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return mapToDtos(documentRepository.findAll());
     }
 
     public List<DocumentDto> getDocumentsByEmployeeId(Long employeeId) {
-        return documentRepository.findAll().stream()
-                .filter(doc -> doc.getEmployeeId().equals(employeeId) || Boolean.TRUE.equals(doc.getIsGlobal()))
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        List<Document> docs = new ArrayList<>(documentRepository.findPersonalByEmployeeId(employeeId));
+        docs.addAll(globalDocuments());
+        docs.sort(Comparator.comparing(Document::getId)); // same order as the old full scan
+        return mapToDtos(docs);
+    }
+
+    /** Drops the cached global documents; call after any write that may touch one. */
+    public void invalidateGlobalDocuments() {
+        globalVersion.incrementAndGet();
+        // Again after commit, so a reload that raced the transaction does not stick
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    globalVersion.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private List<Document> globalDocuments() {
+        long current = globalVersion.get();
+        GlobalDocuments cached = globalDocuments;
+        if (cached != null && cached.version == current) {
+            return cached.documents;
+        }
+        List<Document> loaded = List.copyOf(documentRepository.findByIsGlobalTrueOrderById());
+        globalDocuments = new GlobalDocuments(current, loaded);
+        return loaded;
     }
 
     public DocumentDto uploadDocument(DocumentDto dto) {
@@ -43,44 +88,54 @@ public class DocumentService {
                 .uploadDate(LocalDate.now())
                 .status(DocumentStatus.PENDING)
                 .build();
-        return mapToDto(documentRepository.save(doc));
+        return mapToDto(saveAndInvalidate(doc));
     }
 
+    // Identical content is stored once; the document only references its blob
+    @Transactional
     public DocumentDto uploadFile(org.springframework.web.multipart.MultipartFile file, Long employeeId, String type,
             Boolean isGlobal) {
-        try {
-            String uploadDir = "uploads/documents/";
-            java.nio.file.Path uploadPath = java.nio.file.Paths.get(uploadDir);
-            if (!java.nio.file.Files.exists(uploadPath)) {
-                java.nio.file.Files.createDirectories(uploadPath);
-            }
-
-            String fileName = java.util.UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            java.nio.file.Path filePath = uploadPath.resolve(fileName);
-            java.nio.file.Files.copy(file.getInputStream(), filePath,
-                    java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-
-            String fileUrl = "http://localhost:8080/uploads/documents/" + fileName;
+        DocumentType documentType = DocumentType.valueOf(type.toUpperCase());
+        StoredBlob blob = blobStorageService.store(file);
+        return mapToDto(createFromBlob(blob, employeeId, documentType, file.getOriginalFilename(), isGlobal));
+    }
 
-            Document doc = Document.builder()
-                    .employeeId(employeeId)
-                    .type(DocumentType.valueOf(type.toUpperCase()))
-                    .fileName(file.getOriginalFilename())
-                    .fileUrl(fileUrl)
-                    .uploadDate(LocalDate.now())
-                    .status(DocumentStatus.PENDING)
-                    .isGlobal(isGlobal)
-                    .build();
+    /** Records a pending document for content already registered in blob storage. */
+    public Document createFromBlob(StoredBlob blob, Long employeeId, DocumentType type, String fileName,
+            Boolean isGlobal) {
+        // No stored URL: it is derived from the id and served by the download endpoint
+        Document doc = Document.builder()
+                .employeeId(employeeId)
+                .type(type)
+                .fileName(fileName)
+                .contentHash(blob.getHash())
+                .fileSize(blob.getSize())
+                .uploadDate(LocalDate.now())
+                .status(DocumentStatus.PENDING)
+                .isGlobal(isGlobal)
+                .build();
+        return saveAndInvalidate(doc);
+    }
 
-            return mapToDto(documentRepository.save(doc));
+    public List<DocumentDto> toDtos(List<Document> docs) {
+        return mapToDtos(docs);
+    }
 
-        } catch (java.io.IOException e) {
-            throw new RuntimeException("Could not upload document", e);
-        }
+    public DocumentDto getDocument(Long id) {
+        return documentRepository.findById(id)
+                .map(this::mapToDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Document " + id + " not found"));
     }
 
+    @Transactional
     public void deleteDocument(Long id) {
-        documentRepository.deleteById(id);
+        documentRepository.findById(id).ifPresent(doc -> {
+            documentRepository.delete(doc);
+            blobStorageService.release(doc.getContentHash());
+            if (Boolean.TRUE.equals(doc.getIsGlobal())) {
+                invalidateGlobalDocuments();
+            }
+        });
     }
 
     public DocumentDto verifyDocument(Long id, Long verifierId) {
@@ -88,19 +143,43 @@ public class DocumentService {
         doc.setStatus(DocumentStatus.VERIFIED);
         doc.setVerifiedBy(verifierId);
         doc.setVerifiedDate(LocalDate.now());
-        return mapToDto(documentRepository.save(doc));
+        doc.setLeaseOwner(null);
+        doc.setLeaseExpiresAt(null);
+        return mapToDto(saveAndInvalidate(doc));
+    }
+
+    private Document saveAndInvalidate(Document doc) {
+        Document saved = documentRepository.save(doc);
+        if (Boolean.TRUE.equals(saved.getIsGlobal())) {
+            invalidateGlobalDocuments();
+        }
+        return saved;
     }
 
     private DocumentDto mapToDto(Document doc) {
-        String empName = userRepository.findById(doc.getEmployeeId())
-                .map(u -> u.getFirstName() + " " + u.getLastName())
-                .orElse("Unknown");
+        return mapToDtos(List.of(doc)).get(0);
+    }
+
+    private List<DocumentDto> mapToDtos(List<Document> docs) {
+        Set<Long> userIds = new HashSet<>();
+        for (Document doc : docs) {
+            userIds.add(doc.getEmployeeId());
+            if (doc.getVerifiedBy() != null)
+                userIds.add(doc.getVerifiedBy());
+        }
+        Map<Long, String> names = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, u -> u.getFirstName() + " " + u.getLastName()));
+        return docs.stream()
+                .map(doc -> toDto(doc, names))
+                .collect(Collectors.toList());
+    }
+
+    private DocumentDto toDto(Document doc, Map<Long, String> names) {
+        String empName = names.getOrDefault(doc.getEmployeeId(), "Unknown");
 
         String verifierName = null;
         if (doc.getVerifiedBy() != null) {
-            verifierName = userRepository.findById(doc.getVerifiedBy())
-                    .map(u -> u.getFirstName() + " " + u.getLastName())
-                    .orElse("Unknown");
+            verifierName = names.getOrDefault(doc.getVerifiedBy(), "Unknown");
         }
 
         return DocumentDto.builder()
@@ -113,8 +192,12 @@ public class DocumentService {
                 .status(doc.getStatus().name().toLowerCase())
                 .verifiedBy(verifierName)
                 .verifiedDate(doc.getVerifiedDate() != null ? doc.getVerifiedDate().toString() : null)
-                .fileUrl(doc.getFileUrl())
+                .fileUrl(fileDownloadService.documentUrl(doc))
                 .isGlobal(doc.getIsGlobal())
+                .leaseExpiresAt(doc.getLeaseExpiresAt() != null ? doc.getLeaseExpiresAt().toString() : null)
                 .build();
     }
+
+    private record GlobalDocuments(long version, List<Document> documents) {
+    }
 }
@@ -0,0 +1,117 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.DocumentDto;
+import com.hrms.hrmsbackend.exceptions.ConflictException;
+import com.hrms.hrmsbackend.models.enums.DocumentStatus;
+import com.hrms.hrmsbackend.repositories.DocumentRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands pending documents to reviewers under time-bounded leases, so parallel
+ * reviewers never get the same document and an abandoned claim comes back to
+ * the queue once its lease runs out. On MySQL 8 and PostgreSQL candidates are
+ * picked with SELECT ... FOR UPDATE SKIP LOCKED, letting concurrent claims
+ * proceed without waiting on each other; other databases (H2) serialize
+ * claims on a JVM lock instead. Either way the lease itself is a guarded
+ * UPDATE that only takes rows without a live lease.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentVerificationQueue {
+
+    private final DocumentRepository documentRepository;
+    private final DocumentService documentService;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+
+    private final ReentrantLock claimLock = new ReentrantLock();
+    private boolean skipLocked;
+
+    @Value("${app.documents.verification.lease-minutes:15}")
+    private long leaseMinutes;
+
+    @Value("${app.documents.verification.max-claim:50}")
+    private int maxClaim;
+
+    @PostConstruct
+    void detectSkipLocked() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData meta = connection.getMetaData();
+            String product = meta.getDatabaseProductName();
+            int major = meta.getDatabaseMajorVersion();
+            skipLocked = ("MySQL".equals(product) && major >= 8)
+                    || ("PostgreSQL".equals(product) && (major > 9 || (major == 9 && meta.getDatabaseMinorVersion() >= 5)));
+            log.info("Document verification queue on {} {}: {}", product, major,
+                    skipLocked ? "SKIP LOCKED claims" : "in-process claim lock");
+        } catch (SQLException e) {
+            log.warn("Could not detect database, using in-process claim lock", e);
+        }
+    }
+
+    /** Leases up to limit pending documents to the reviewer, oldest first. */
+    public List<DocumentDto> claim(Long reviewerId, Integer limit) {
+        int count = limit == null ? 10 : Math.max(1, Math.min(limit, maxClaim));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime expires = now.plusMinutes(leaseMinutes);
+
+        if (skipLocked) {
+            return transactionTemplate.execute(status -> lease(
+                    documentRepository.lockClaimable(now, count), reviewerId, expires, now));
+        }
+        claimLock.lock();
+        try {
+            return transactionTemplate.execute(status -> lease(
+                    documentRepository.findClaimable(now, PageRequest.of(0, count)), reviewerId, expires, now));
+        } finally {
+            claimLock.unlock();
+        }
+    }
+
+    /** Records the reviewer's decision; fails if the lease has lapsed or belongs to someone else. */
+    public DocumentDto complete(Long documentId, Long reviewerId, String decision) {
+        DocumentStatus status = DocumentStatus.valueOf(decision.toUpperCase());
+        if (status == DocumentStatus.PENDING) {
+            throw new RuntimeException("Decision must be VERIFIED or REJECTED");
+        }
+        Integer updated = transactionTemplate.execute(tx -> documentRepository.completeLeased(documentId, reviewerId,
+                status, LocalDate.now(), LocalDateTime.now()));
+        if (updated == null || updated == 0) {
+            throw new ConflictException("No live lease on document " + documentId + " for reviewer " + reviewerId);
+        }
+        documentService.invalidateGlobalDocuments();
+        return documentService.getDocument(documentId);
+    }
+
+    /** Gives a claimed document back to the queue before its lease runs out. */
+    public void release(Long documentId, Long reviewerId) {
+        Integer released = transactionTemplate.execute(tx -> documentRepository.releaseLease(documentId, reviewerId));
+        if (released == null || released == 0) {
+            throw new ConflictException("Document " + documentId + " is not leased to reviewer " + reviewerId);
+        }
+    }
+
+    private List<DocumentDto> lease(List<Long> ids, Long reviewerId, LocalDateTime expires, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        documentRepository.lease(ids, reviewerId, expires, now);
+        return documentService.toDtos(documentRepository.findLeased(ids, reviewerId, expires));
+    }
+}
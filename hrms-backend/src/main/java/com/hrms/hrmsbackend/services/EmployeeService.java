@@ -21,6 +21,9 @@ public class EmployeeService {
         private final DepartmentRepository departmentRepository;
         private final PositionRepository positionRepository;
         private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder; // Injected
+        private final AttendanceBoardService attendanceBoardService;
+        private final FileDownloadService fileDownloadService;
+        private final AnnouncementService announcementService;
 
         public List<EmployeeResponseDto> getAllEmployees() {
                 return userRepository.findAll().stream()
@@ -64,6 +67,9 @@ public class EmployeeService {
                                 .build();
 
                 User saved = userRepository.save(user);
+                attendanceBoardService.registerEmployee(saved);
+                if (req.getFirstName() != null || req.getLastName() != null)
+                        announcementService.invalidateFeed(); // poster names are baked into the feed
                 return mapToDto(saved);
         }
 
@@ -92,6 +98,7 @@ public class EmployeeService {
                 // if (req.getStatus() != null) ...
 
                 User saved = userRepository.save(user);
+                attendanceBoardService.registerEmployee(saved);
                 return mapToDto(saved);
         }
 
@@ -99,6 +106,7 @@ public class EmployeeService {
                 User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
                 user.setStatus(com.hrms.hrmsbackend.models.enums.UserStatus.INACTIVE);
                 userRepository.save(user);
+                attendanceBoardService.removeEmployee(id);
         }
 
         private EmployeeResponseDto mapToDto(User user) {
@@ -134,7 +142,8 @@ public class EmployeeService {
                                 .joiningDate(user.getJoiningDate() != null ? user.getJoiningDate().toString() : null)
                                 .salary(user.getSalary())
                                 .status(user.getStatus().name().toLowerCase())
-                                .avatar(user.getAvatar())
+                                .avatar(fileDownloadService.avatarUrl(user))
+                                .avatarRenditions(fileDownloadService.avatarRenditionUrls(user))
                                 .manager(managerName)
                                 .role(user.getRole().name())
                                 .build();
@@ -0,0 +1,217 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.exceptions.ForbiddenException;
+import com.hrms.hrmsbackend.exceptions.ResourceNotFoundException;
+import com.hrms.hrmsbackend.models.Document;
+import com.hrms.hrmsbackend.models.StoredBlob;
+import com.hrms.hrmsbackend.models.User;
+import com.hrms.hrmsbackend.models.enums.Role;
+import com.hrms.hrmsbackend.repositories.DocumentRepository;
+import com.hrms.hrmsbackend.repositories.StoredBlobRepository;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import com.hrms.hrmsbackend.storage.BlobStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves download requests for documents and avatars to a local file plus
+ * the metadata needed to serve it, and applies per-document access rules.
+ * Global documents are open. Other documents are served to their owner or an
+ * admin named by userId, or to anyone holding the signed link that document
+ * DTOs carry. The app has no authenticated principal yet, so userId is taken
+ * on trust and the document listings that hand out links are open too: the
+ * signature only stops a caller from fetching documents by guessing ids.
+ */
+@Service
+@RequiredArgsConstructor
+public class FileDownloadService {
+
+    private final DocumentRepository documentRepository;
+    private final StoredBlobRepository storedBlobRepository;
+    private final UserRepository userRepository;
+    private final BlobStorageService blobStorageService;
+    private final BlobStore blobStore;
+
+    @Value("${app.files.link-secret:${application.security.jwt.secret-key}}")
+    private String linkSecret;
+
+    public FileTarget resolveDocument(Long documentId, Long requesterId, String signature) {
+        Document doc = documentRepository.findById(documentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
+        if (!Boolean.TRUE.equals(doc.getIsGlobal()) && !validSignature(doc, signature)
+                && !canAccess(doc.getEmployeeId(), requesterId)) {
+            throw new ForbiddenException("Not allowed to download this document");
+        }
+
+        if (doc.getContentHash() != null) {
+            String contentType = storedBlobRepository.findByHash(doc.getContentHash())
+                    .map(StoredBlob::getContentType)
+                    .orElse(null);
+            // Content-addressed: the bytes behind this hash can never change
+            return new FileTarget(existing(blobStorageService.pathOf(doc.getContentHash())),
+                    "\"" + doc.getContentHash() + "\"", doc.getFileName(),
+                    contentType != null ? contentType : probe(doc.getFileName()), true);
+        }
+        Path legacy = existing(localPath(doc.getFileUrl()));
+        return new FileTarget(legacy, null, doc.getFileName(), probe(doc.getFileName()), false);
+    }
+
+    /**
+     * Avatar URLs carry the stored file name as a version, so a request for
+     * the current version can be cached forever and a new upload changes the URL.
+     * A size picks a rendition; until it is built the original is served, uncached.
+     */
+    public FileTarget resolveAvatar(Long userId, String version, Integer size) {
+        User user = userRepository.findById(userId).orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        String hash = BlobStorageService.hashOf(user.getAvatar());
+        if (size != null) {
+            String rendition = AvatarRenditionService.parse(user.getAvatarRenditions()).get(size);
+            if (rendition != null) {
+                Path path = existing(blobStorageService.pathOf(rendition));
+                return new FileTarget(path, "\"" + rendition + "\"", "avatar-" + size + ".jpg", "image/jpeg",
+                        rendition.equals(version));
+            }
+            version = null;
+        }
+        if (hash != null) {
+            Path path = existing(blobStorageService.pathOf(hash));
+            String contentType = storedBlobRepository.findByHash(hash)
+                    .map(StoredBlob::getContentType)
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            return new FileTarget(path, "\"" + hash + "\"", "avatar", contentType, hash.equals(version));
+        }
+        Path path = existing(localPath(user.getAvatar()));
+        String fileName = path.getFileName().toString();
+        return new FileTarget(path, null, fileName, probe(fileName), fileName.equals(version));
+    }
+
+    /**
+     * Public URL of a document's file: the signed download endpoint for stored
+     * files, else the stored link. The signature covers the current content,
+     * so the link stays cacheable and stops working once the file is replaced.
+     */
+    public String documentUrl(Document doc) {
+        if (doc.getContentHash() == null && !isLocalFile(doc.getFileUrl())) {
+            return doc.getFileUrl();
+        }
+        String url = baseUrl() + "/api/files/documents/" + doc.getId();
+        return Boolean.TRUE.equals(doc.getIsGlobal()) ? url : url + "?sig=" + sign(doc);
+    }
+
+    public String avatarUrl(User user) {
+        String hash = BlobStorageService.hashOf(user.getAvatar());
+        if (hash == null && !isLocalFile(user.getAvatar())) {
+            return user.getAvatar();
+        }
+        String fileName = hash != null ? hash : localPath(user.getAvatar()).getFileName().toString();
+        return baseUrl() + "/api/files/avatars/" + user.getId() + "?v="
+                + URLEncoder.encode(fileName, StandardCharsets.UTF_8);
+    }
+
+    /** Rendition URLs by edge length; empty until the renditions have been built. */
+    public Map<String, String> avatarRenditionUrls(User user) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        AvatarRenditionService.parse(user.getAvatarRenditions()).forEach((size, hash) -> urls.put(
+                size.toString(), baseUrl() + "/api/files/avatars/" + user.getId() + "?size=" + size + "&v=" + hash));
+        return urls;
+    }
+
+    /** Whether a stored URL points at a file under uploads/ that this service can serve. */
+    public static boolean isLocalFile(String url) {
+        return url != null && url.contains("/uploads/");
+    }
+
+    private static String baseUrl() {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return "";
+        }
+        return ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
+    }
+
+    private String sign(Document doc) {
+        String content = doc.getContentHash() != null ? doc.getContentHash() : doc.getFileUrl();
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(linkSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] digest = mac.doFinal((doc.getId() + ":" + content).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private boolean validSignature(Document doc, String signature) {
+        return signature != null && MessageDigest.isEqual(
+                sign(doc).getBytes(StandardCharsets.US_ASCII), signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private boolean canAccess(Long ownerId, Long requesterId) {
+        if (requesterId == null) {
+            return false;
+        }
+        if (requesterId.equals(ownerId)) {
+            return true;
+        }
+        return userRepository.findById(requesterId)
+                .map(u -> u.getRole() == Role.ADMIN || u.getRole() == Role.MASTER_ADMIN)
+                .orElse(false);
+    }
+
+    // Maps ".../uploads/<relative>" to a path under the upload root, refusing anything outside it.
+    // Pre-blob uploads live in the directory that holds the blob store, uploads/ by default.
+    public Path localPath(String url) {
+        if (!isLocalFile(url)) {
+            throw new ResourceNotFoundException("No stored file");
+        }
+        String relative = url.substring(url.indexOf("/uploads/") + "/uploads/".length());
+        int query = relative.indexOf('?');
+        if (query >= 0) {
+            relative = relative.substring(0, query);
+        }
+        Path uploadRoot = blobStore.root().getParent();
+        Path path = uploadRoot.resolve(relative).normalize();
+        if (!path.startsWith(uploadRoot)) {
+            throw new ResourceNotFoundException("No stored file");
+        }
+        return path;
+    }
+
+    private static Path existing(Path path) {
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Stored file is missing");
+        }
+        return path;
+    }
+
+    private static String probe(String fileName) {
+        return MediaTypeFactory.getMediaType(fileName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+    }
+
+    @lombok.Value
+    public static class FileTarget {
+        Path path;
+        String etag; // null when the file has no content hash
+        String fileName;
+        String contentType;
+        boolean immutable;
+    }
+}
@@ -0,0 +1,61 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.HolidayDto;
+import com.hrms.hrmsbackend.models.Holiday;
+import com.hrms.hrmsbackend.repositories.HolidayRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class HolidayService {
+
+    private final HolidayRepository holidayRepository;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final LeaveBalanceLedger leaveBalanceLedger;
+    private final TimesheetService timesheetService;
+
+    public List<HolidayDto> getHolidays(int year) {
+        return holidayRepository.findByDateBetweenOrderByDate(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))
+                .stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+    }
+
+    public HolidayDto saveHoliday(HolidayDto dto) {
+        LocalDate date = LocalDate.parse(dto.getDate());
+        Holiday holiday = holidayRepository.findByDate(date).orElseGet(() -> Holiday.builder().date(date).build());
+        holiday.setName(dto.getName());
+        holiday.setType(dto.getType() != null ? dto.getType() : "National");
+        Holiday saved = holidayRepository.save(holiday);
+        calendarChanged(date);
+        return mapToDto(saved);
+    }
+
+    public void deleteHoliday(LocalDate date) {
+        holidayRepository.findByDate(date).ifPresent(h -> {
+            holidayRepository.delete(h);
+            calendarChanged(date);
+        });
+    }
+
+    private void calendarChanged(LocalDate date) {
+        workingDayCalendar.invalidate(date.getYear());
+        // Leave day counts depend on the calendar
+        leaveBalanceLedger.reload();
+        timesheetService.invalidateRange(date, date);
+    }
+
+    private HolidayDto mapToDto(Holiday holiday) {
+        return HolidayDto.builder()
+                .id(holiday.getId().toString())
+                .date(holiday.getDate().toString())
+                .name(holiday.getName())
+                .type(holiday.getType())
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.models.LeaveRequest;
+import com.hrms.hrmsbackend.models.enums.LeaveStatus;
+import com.hrms.hrmsbackend.repositories.LeaveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approved leave days per employee, loaded once at startup and adjusted as
+ * leaves are approved or revoked, so balance lookups never rescan the leaves
+ * table. Days are working days on the company calendar; the amount each leave
+ * contributed is remembered so a revoke subtracts exactly what was added.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaveBalanceLedger {
+
+    private final LeaveRepository leaveRepository;
+    private final WorkingDayCalendar workingDayCalendar;
+
+    private final Map<Long, Double> usedDays = new ConcurrentHashMap<>();
+    private final Map<Long, Double> contributions = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        List<LeaveRequest> approved = leaveRepository.findByStatusIn(List.of(LeaveStatus.APPROVED));
+        usedDays.clear();
+        contributions.clear();
+        applyApproved(approved);
+        log.info("Leave balance ledger loaded from {} approved leaves", approved.size());
+    }
+
+    public double usedDays(Long employeeId) {
+        return usedDays.getOrDefault(employeeId, 0.0);
+    }
+
+    public void applyApproved(Collection<LeaveRequest> leaves) {
+        for (LeaveRequest leave : leaves) {
+            double days = workingDayCalendar.workingDaysBetween(leave.getStartDate(), leave.getEndDate());
+            if (contributions.putIfAbsent(leave.getId(), days) == null) {
+                usedDays.merge(leave.getEmployeeId(), days, Double::sum);
+            }
+        }
+    }
+
+    public void revokeApproved(Collection<LeaveRequest> leaves) {
+        for (LeaveRequest leave : leaves) {
+            Double days = contributions.remove(leave.getId());
+            if (days != null) {
+                usedDays.merge(leave.getEmployeeId(), -days, Double::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.models.LeaveRequest;
+import com.hrms.hrmsbackend.models.enums.LeaveStatus;
+import com.hrms.hrmsbackend.models.enums.LeaveType;
+import com.hrms.hrmsbackend.repositories.LeaveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of pending and approved leaves ordered by start date, both
+ * globally and per employee. The longest span among the indexed leaves is
+ * tracked as they come and go, so a leave overlapping [from, to] must start
+ * in [from - longest span, to]. Overlap checks and "who's out" range queries
+ * are therefore a single ordered range lookup instead of a scan of the
+ * leaves table, and the window narrows again once a long leave is rejected
+ * or removed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaveIntervalIndex {
+
+    private static final Comparator<Interval> BY_START = Comparator.comparing(Interval::getStartDate)
+            .thenComparing(Interval::getLeaveId);
+
+    private final LeaveRepository leaveRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableSet<Interval> byStart = new TreeSet<>(BY_START);
+    private final Map<Long, NavigableSet<Interval>> byEmployee = new HashMap<>();
+    private final Map<Long, Interval> byId = new HashMap<>();
+    // Span in days -> number of indexed leaves with that span; the last key is the longest
+    private final NavigableMap<Long, Integer> spans = new TreeMap<>();
+    private long maxSpanDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<LeaveRequest> leaves = leaveRepository.findByStatusIn(List.of(LeaveStatus.PENDING, LeaveStatus.APPROVED));
+        lock.writeLock().lock();
+        try {
+            byStart.clear();
+            byEmployee.clear();
+            byId.clear();
+            spans.clear();
+            maxSpanDays = 0;
+            leaves.forEach(l -> add(Interval.of(l)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Leave interval index loaded with {} leaves", leaves.size());
+    }
+
+    /**
+     * Indexes the leave unless it overlaps another pending or approved leave of
+     * the same employee. Check and insert happen under one lock, so two
+     * concurrent requests for the same days cannot both succeed.
+     */
+    public boolean tryAdd(LeaveRequest leave) {
+        Interval interval = Interval.of(leave);
+        lock.writeLock().lock();
+        try {
+            if (!overlapping(byEmployee.get(interval.getEmployeeId()), interval.getStartDate(),
+                    interval.getEndDate(), interval.getLeaveId()).isEmpty()) {
+                return false;
+            }
+            add(interval);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Re-indexes a leave after a status change; rejected or cancelled leaves drop out. */
+    public void update(LeaveRequest leave) {
+        lock.writeLock().lock();
+        try {
+            remove(leave.getId());
+            if (leave.getStatus() == LeaveStatus.PENDING || leave.getStatus() == LeaveStatus.APPROVED) {
+                add(Interval.of(leave));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void evict(Long leaveId) {
+        lock.writeLock().lock();
+        try {
+            remove(leaveId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean hasOverlap(Long employeeId, LocalDate from, LocalDate to, Long excludeLeaveId) {
+        lock.readLock().lock();
+        try {
+            return !overlapping(byEmployee.get(employeeId), from, to, excludeLeaveId).isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Leaves overlapping [from, to], approved only unless pending ones are asked for. */
+    public List<Interval> findOut(LocalDate from, LocalDate to, boolean includePending) {
+        lock.readLock().lock();
+        try {
+            List<Interval> result = overlapping(byStart, from, to, null);
+            if (!includePending) {
+                result.removeIf(i -> i.getStatus() != LeaveStatus.APPROVED);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countOnLeave(LocalDate date) {
+        return (int) findOut(date, date, false).stream()
+                .map(Interval::getEmployeeId)
+                .distinct()
+                .count();
+    }
+
+    private List<Interval> overlapping(NavigableSet<Interval> set, LocalDate from, LocalDate to, Long excludeLeaveId) {
+        List<Interval> result = new ArrayList<>();
+        if (set == null || to.isBefore(from)) {
+            return result;
+        }
+        Interval low = probe(from.minusDays(maxSpanDays), Long.MIN_VALUE);
+        Interval high = probe(to, Long.MAX_VALUE);
+        for (Interval candidate : set.subSet(low, true, high, true)) {
+            if (!candidate.getEndDate().isBefore(from) && !candidate.getLeaveId().equals(excludeLeaveId)) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    private void add(Interval interval) {
+        byStart.add(interval);
+        byEmployee.computeIfAbsent(interval.getEmployeeId(), id -> new TreeSet<>(BY_START)).add(interval);
+        byId.put(interval.getLeaveId(), interval);
+        spans.merge(span(interval), 1, Integer::sum);
+        maxSpanDays = spans.lastKey();
+    }
+
+    private void remove(Long leaveId) {
+        Interval existing = byId.remove(leaveId);
+        if (existing == null) {
+            return;
+        }
+        byStart.remove(existing);
+        spans.computeIfPresent(span(existing), (span, count) -> count == 1 ? null : count - 1);
+        maxSpanDays = spans.isEmpty() ? 0 : spans.lastKey();
+        NavigableSet<Interval> own = byEmployee.get(existing.getEmployeeId());
+        if (own != null) {
+            own.remove(existing);
+            if (own.isEmpty()) {
+                byEmployee.remove(existing.getEmployeeId());
+            }
+        }
+    }
+
+    private static long span(Interval interval) {
+        return ChronoUnit.DAYS.between(interval.getStartDate(), interval.getEndDate());
+    }
+
+    private static Interval probe(LocalDate startDate, long leaveId) {
+        return new Interval(leaveId, null, null, startDate, startDate, null);
+    }
+
+    @Value
+    public static class Interval {
+        Long leaveId;
+        Long employeeId;
+        LeaveType type;
+        LocalDate startDate;
+        LocalDate endDate;
+        LeaveStatus status;
+
+        static Interval of(LeaveRequest leave) {
+            return new Interval(leave.getId(), leave.getEmployeeId(), leave.getType(), leave.getStartDate(),
+                    leave.getEndDate(), leave.getStatus());
+        }
+    }
+}
@@ -1,16 +1,31 @@
 package com.hrms.hrmsbackend.services;
 
+import com.hrms.hrmsbackend.dtos.CoreDtos.BulkLeaveDecisionDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.LeaveCalendarEntryDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.LeaveDecisionResultDto;
 import com.hrms.hrmsbackend.dtos.CoreDtos.LeaveDto;
+import com.hrms.hrmsbackend.exceptions.ConflictException;
 import com.hrms.hrmsbackend.models.LeaveRequest;
+import com.hrms.hrmsbackend.models.User;
 import com.hrms.hrmsbackend.models.enums.LeaveStatus;
 import com.hrms.hrmsbackend.models.enums.LeaveType;
 import com.hrms.hrmsbackend.repositories.LeaveRepository;
 import com.hrms.hrmsbackend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,6 +34,11 @@ public class LeaveService {
 
     private final LeaveRepository leaveRepository;
     private final UserRepository userRepository;
+    private final TimesheetService timesheetService;
+    private final LeaveIntervalIndex leaveIntervalIndex;
+    private final LeaveBalanceLedger leaveBalanceLedger;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final OptimisticRetry optimisticRetry;
 
     public List<LeaveDto> getAllLeaves() {
         return leaveRepository.findAll().stream()
@@ -32,25 +52,169 @@ public class LeaveService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional
     public LeaveDto createLeaveRequest(LeaveDto dto) {
+        Long employeeId = Long.parseLong(dto.getEmployeeId());
+        LocalDate startDate = LocalDate.parse(dto.getStartDate());
+        LocalDate endDate = LocalDate.parse(dto.getEndDate());
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("Leave end date is before its start date");
+        }
+        // Weekends and holidays are not charged against the balance
+        int workingDays = workingDayCalendar.workingDaysBetween(startDate, endDate);
+        if (workingDays == 0) {
+            throw new RuntimeException("Leave range has no working days");
+        }
+        if (leaveIntervalIndex.hasOverlap(employeeId, startDate, endDate, null)) {
+            throw new RuntimeException("Leave request overlaps an existing leave");
+        }
+
         LeaveRequest req = LeaveRequest.builder()
-                .employeeId(Long.parseLong(dto.getEmployeeId()))
+                .employeeId(employeeId)
                 .type(LeaveType.valueOf(dto.getType().toUpperCase()))
-                .startDate(LocalDate.parse(dto.getStartDate()))
-                .endDate(LocalDate.parse(dto.getEndDate()))
-                .days(dto.getDays())
+                .startDate(startDate)
+                .endDate(endDate)
+                .days((double) workingDays)
                 .reason(dto.getReason())
                 .status(LeaveStatus.PENDING)
                 .build();
-        return mapToDto(leaveRepository.save(req));
+        LeaveRequest saved = leaveRepository.save(req);
+
+        // Re-checked atomically against concurrent requests; losing the race rolls the insert back
+        if (!leaveIntervalIndex.tryAdd(saved)) {
+            throw new RuntimeException("Leave request overlaps an existing leave");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    leaveIntervalIndex.evict(saved.getId());
+                }
+            }
+        });
+        return mapToDto(saved);
     }
 
-    public LeaveDto updateStatus(Long id, String status, Long approverId) {
+    /**
+     * Sets a leave's status. With an expected version the change only applies
+     * to that version; without one it is retried on top of concurrent edits.
+     */
+    public LeaveDto updateStatus(Long id, String status, Long approverId, Long expectedVersion) {
+        if (expectedVersion != null) {
+            return applyStatus(id, status, approverId, expectedVersion);
+        }
+        return optimisticRetry.run("Leave request " + id, () -> applyStatus(id, status, approverId, null));
+    }
+
+    private LeaveDto applyStatus(Long id, String status, Long approverId, Long expectedVersion) {
         LeaveRequest req = leaveRepository.findById(id).orElseThrow();
+        if (expectedVersion != null && !expectedVersion.equals(req.getVersion())) {
+            throw new ConflictException("Leave request " + id + " was modified by someone else");
+        }
+        LeaveStatus previous = req.getStatus();
         req.setStatus(LeaveStatus.valueOf(status.toUpperCase()));
         if (approverId != null)
             req.setApprovedBy(approverId);
-        return mapToDto(leaveRepository.save(req));
+        LeaveRequest saved = leaveRepository.save(req);
+        leaveIntervalIndex.update(saved);
+        if (previous == LeaveStatus.APPROVED && saved.getStatus() != LeaveStatus.APPROVED)
+            leaveBalanceLedger.revokeApproved(List.of(saved));
+        if (previous != LeaveStatus.APPROVED && saved.getStatus() == LeaveStatus.APPROVED)
+            leaveBalanceLedger.applyApproved(List.of(saved));
+        timesheetService.invalidateEmployee(saved.getEmployeeId(), saved.getStartDate(), saved.getEndDate());
+        return mapToDto(saved);
+    }
+
+    /**
+     * Approves or rejects many pending leaves with one UPDATE in one
+     * transaction. The pending rows are locked first, so the UPDATE changes
+     * exactly the leaves reported as decided; leaves that are missing or no
+     * longer pending are reported back instead of failing the whole batch.
+     */
+    @Transactional
+    public List<LeaveDecisionResultDto> decideBulk(BulkLeaveDecisionDto dto) {
+        LeaveStatus target = switch (String.valueOf(dto.getAction()).toUpperCase()) {
+            case "APPROVE" -> LeaveStatus.APPROVED;
+            case "REJECT" -> LeaveStatus.REJECTED;
+            default -> throw new RuntimeException("Unknown action: " + dto.getAction());
+        };
+        Long approvedBy = target == LeaveStatus.APPROVED ? dto.getApprovedBy() : null;
+        if (dto.getIds() == null || dto.getIds().stream().anyMatch(Objects::isNull)) {
+            throw new RuntimeException("Leave ids are required");
+        }
+
+        Set<Long> pendingIds = new HashSet<>(leaveRepository.findPendingIds(dto.getIds()));
+
+        if (!pendingIds.isEmpty()) {
+            int updated = target == LeaveStatus.APPROVED
+                    ? leaveRepository.approvePending(pendingIds, approvedBy)
+                    : leaveRepository.rejectPending(pendingIds);
+            if (updated != pendingIds.size()) {
+                throw new ConflictException("Leave requests changed while being decided, try again");
+            }
+        }
+
+        // Read after the UPDATE, which cleared the persistence context, so these are fresh, unmodified rows
+        Map<Long, LeaveRequest> found = leaveRepository.findAllById(dto.getIds()).stream()
+                .collect(Collectors.toMap(LeaveRequest::getId, Function.identity()));
+        if (!pendingIds.isEmpty()) {
+            List<LeaveRequest> pending = pendingIds.stream().map(found::get).collect(Collectors.toList());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.forEach(leaveIntervalIndex::update);
+                    if (target == LeaveStatus.APPROVED)
+                        leaveBalanceLedger.applyApproved(pending);
+                    pending.forEach(l -> timesheetService.invalidateEmployee(l.getEmployeeId(),
+                            l.getStartDate(), l.getEndDate()));
+                }
+            });
+        }
+
+        List<LeaveDecisionResultDto> results = new ArrayList<>(dto.getIds().size());
+        for (Long id : dto.getIds()) {
+            LeaveRequest leave = found.get(id);
+            String outcome;
+            if (leave == null)
+                outcome = "not_found";
+            else if (pendingIds.contains(id))
+                outcome = target.name().toLowerCase();
+            else
+                outcome = "already_" + leave.getStatus().name().toLowerCase();
+            results.add(LeaveDecisionResultDto.builder().id(id.toString()).outcome(outcome).build());
+        }
+        return results;
+    }
+
+    public List<LeaveCalendarEntryDto> getTeamCalendar(LocalDate from, LocalDate to, Long departmentId,
+            boolean includePending) {
+        List<LeaveIntervalIndex.Interval> out = leaveIntervalIndex.findOut(from, to, includePending);
+        Map<Long, User> users = userRepository.findAllById(out.stream()
+                .map(LeaveIntervalIndex.Interval::getEmployeeId)
+                .distinct()
+                .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return out.stream()
+                .filter(i -> departmentId == null || (users.containsKey(i.getEmployeeId())
+                        && departmentId.equals(users.get(i.getEmployeeId()).getDepartmentId())))
+                .sorted(Comparator.comparing(LeaveIntervalIndex.Interval::getStartDate))
+                .map(i -> {
+                    User user = users.get(i.getEmployeeId());
+                    return LeaveCalendarEntryDto.builder()
+                            .leaveId(i.getLeaveId().toString())
+                            .employeeId(i.getEmployeeId().toString())
+                            .employeeName(user != null ? user.getFirstName() + " " + user.getLastName() : "Unknown")
+                            .departmentId(user != null && user.getDepartmentId() != null
+                                    ? user.getDepartmentId().toString()
+                                    : null)
+                            .type(i.getType().name().toLowerCase())
+                            .startDate(i.getStartDate().toString())
+                            .endDate(i.getEndDate().toString())
+                            .status(i.getStatus().name().toLowerCase())
+                            .build();
+                })
+                .collect(Collectors.toList());
     }
 
     private LeaveDto mapToDto(LeaveRequest req) {
@@ -77,6 +241,7 @@ public class LeaveService {
                 .status(req.getStatus().name().toLowerCase())
                 .approvedBy(approvedByName)
                 .createdAt(req.getCreatedAt().toString())
+                .version(req.getVersion())
                 .build();
     }
 }
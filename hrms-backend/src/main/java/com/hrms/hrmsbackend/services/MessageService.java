@@ -1,55 +1,261 @@
 package com.hrms.hrmsbackend.services;
 
+import com.hrms.hrmsbackend.dtos.CoreDtos.ConversationDto;
 import com.hrms.hrmsbackend.dtos.CoreDtos.MessageDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.MessagePageDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.UnreadCountDto;
 import com.hrms.hrmsbackend.models.Message;
+import com.hrms.hrmsbackend.models.User;
+import com.hrms.hrmsbackend.realtime.MessageHub;
 import com.hrms.hrmsbackend.repositories.MessageRepository;
 import com.hrms.hrmsbackend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MessageService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Newest first, ties broken by id, matching the keyset queries
+    private static final Comparator<Message> NEWEST_FIRST = Comparator.comparing(Message::getTimestamp)
+            .thenComparing(Message::getId)
+            .reversed();
+
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
+    private final MessageHub messageHub;
+    private final UnreadMessageLedger unreadMessageLedger;
+    private final BroadcastReadTracker broadcastReadTracker;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.messages.ws.catch-up-limit:200}")
+    private int catchUpLimit;
 
     public List<MessageDto> getAllMessages() {
-        return messageRepository.findAllByOrderByTimestampDesc().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return mapToDtos(messageRepository.findAllByOrderByTimestampDesc());
+    }
+
+    /** Messages sent to the user, one page at a time going back in time. */
+    public MessagePageDto getInbox(Long userId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        Cursor before = Cursor.parse(cursor);
+        List<Message> messages = messageRepository.findInbox(userId, before.time, before.id,
+                PageRequest.of(0, pageSize + 1));
+        return page(messages, pageSize);
+    }
+
+    /**
+     * Broadcast messages, newest first, with read state taken from the
+     * user's broadcast cursor rather than the shared row.
+     */
+    public MessagePageDto getBroadcasts(Long userId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        Cursor before = Cursor.parse(cursor);
+        MessagePageDto page = page(messageRepository.findBroadcasts(before.time, before.id,
+                PageRequest.of(0, pageSize + 1)), pageSize);
+        long lastRead = broadcastReadTracker.lastRead(userId);
+        page.getItems().forEach(message -> message.setRead(Long.parseLong(message.getId()) <= lastRead));
+        return page;
+    }
+
+    /** Advances the user's broadcast cursor to upToId, or to the latest broadcast. */
+    public UnreadCountDto markBroadcastsRead(Long userId, Long upToId) {
+        broadcastReadTracker.markRead(userId, upToId != null ? upToId : broadcastReadTracker.latestBroadcastId());
+        return getUnreadCounts(userId);
+    }
+
+    /**
+     * Both directions of a conversation, newest first. Each direction is its
+     * own index range, so a page reads at most two pages of rows.
+     */
+    public MessagePageDto getThread(Long userId, Long otherUserId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        Cursor before = Cursor.parse(cursor);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Message> messages = new ArrayList<>(messageRepository.findSent(userId, otherUserId, before.time,
+                before.id, limit));
+        if (!userId.equals(otherUserId)) {
+            messages.addAll(messageRepository.findSent(otherUserId, userId, before.time, before.id, limit));
+        }
+        messages.sort(NEWEST_FIRST);
+        return page(messages, pageSize);
+    }
+
+    /** One entry per person the user has exchanged direct messages with, most recent first. */
+    public List<ConversationDto> getConversations(Long userId) {
+        Set<Long> latestIds = new HashSet<>(messageRepository.findLatestReceivedIds(userId));
+        latestIds.addAll(messageRepository.findLatestSentIds(userId));
+        List<Message> latest = new ArrayList<>(messageRepository.findAllById(latestIds));
+        latest.sort(NEWEST_FIRST);
+
+        // Sent and received lists both name each counterpart; keep whichever is newer
+        Map<Long, Message> byCounterpart = new LinkedHashMap<>();
+        for (Message message : latest) {
+            Long counterpart = message.getSenderId().equals(userId) ? message.getReceiverId() : message.getSenderId();
+            byCounterpart.putIfAbsent(counterpart, message);
+        }
+
+        Map<Long, String> names = userNames(byCounterpart.values());
+        List<ConversationDto> conversations = new ArrayList<>(byCounterpart.size());
+        byCounterpart.forEach((counterpart, message) -> conversations.add(ConversationDto.builder()
+                .userId(counterpart.toString())
+                .userName(names.getOrDefault(counterpart, "Unknown"))
+                .lastMessage(toDto(message, names))
+                .unreadCount(unreadMessageLedger.fromSender(userId, counterpart))
+                .build()));
+        return conversations;
+    }
+
+    /**
+     * Direct messages to or from the user after the cursor, oldest first, for
+     * a reconnecting WebSocket client; null when more than the catch-up limit
+     * are missing and the client should reload over REST instead.
+     */
+    public List<MessageDto> getMessagesSince(Long userId, String cursor) {
+        Cursor after = Cursor.parse(cursor);
+        PageRequest limit = PageRequest.of(0, catchUpLimit + 1);
+        List<Message> messages = new ArrayList<>(messageRepository.findReceivedAfter(userId, after.time, after.id,
+                limit));
+        messages.addAll(messageRepository.findSentAfter(userId, after.time, after.id, limit));
+        messages.addAll(messageRepository.findBroadcastsAfter(after.time, after.id, limit));
+        if (messages.size() > catchUpLimit) {
+            return null;
+        }
+        messages.sort(NEWEST_FIRST.reversed());
+        return mapToDtos(messages);
     }
 
     public MessageDto sendMessage(MessageDto dto) {
+        Long receiverId = dto.getReceiverId() != null ? Long.parseLong(dto.getReceiverId()) : null;
+        if (dto.isBroadcast() && receiverId != null) {
+            throw new RuntimeException("A broadcast cannot have a receiver");
+        }
+        return send(Long.parseLong(dto.getSenderId()), receiverId, dto.getContent(), dto.isBroadcast());
+    }
+
+    /** Stores a message and updates unread state and live subscribers; also used for system notifications. */
+    public MessageDto send(Long senderId, Long receiverId, String content) {
+        return send(senderId, receiverId, content, false);
+    }
+
+    private MessageDto send(Long senderId, Long receiverId, String content, boolean broadcast) {
         Message message = Message.builder()
-                .senderId(Long.parseLong(dto.getSenderId()))
-                .receiverId(dto.getReceiverId() != null ? Long.parseLong(dto.getReceiverId()) : null)
-                .content(dto.getContent())
-                .timestamp(LocalDateTime.now())
+                .senderId(senderId)
+                .receiverId(receiverId)
+                .content(content)
+                .broadcast(broadcast)
+                // Microseconds, as stored, so cursors from live frames match the database
+                .timestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
                 .isRead(false)
                 .build();
 
-        return mapToDto(messageRepository.save(message));
+        MessageDto saved = mapToDto(messageRepository.save(message));
+        if (saved.getReceiverId() != null) {
+            unreadMessageLedger.recordSent(message.getReceiverId(), message.getSenderId());
+        } else if (broadcast) {
+            // Stored once; each user's unread state comes from their read cursor
+            broadcastReadTracker.recordBroadcast(message.getId(), message.getSenderId());
+        }
+        messageHub.publish(saved);
+        return saved;
     }
 
-    public void markAsRead(Long id) {
+    public void markAsRead(Long id, Long userId) {
         Message message = messageRepository.findById(id).orElseThrow();
-        message.setRead(true);
-        messageRepository.save(message);
+        if (message.isBroadcast() && userId != null) {
+            // The broadcast row is shared; reading it only moves this user's cursor
+            broadcastReadTracker.markRead(userId, id);
+            return;
+        }
+        Integer updated = transactionTemplate.execute(status -> messageRepository.markRead(id));
+        if (updated != null && updated > 0 && message.getReceiverId() != null) {
+            unreadMessageLedger.recordRead(message.getReceiverId(), message.getSenderId(), updated);
+        }
+    }
+
+    /**
+     * Marks everything the other user sent to this user as read, up to and
+     * including upToId when given, in a single UPDATE.
+     */
+    public UnreadCountDto markConversationRead(Long userId, Long otherUserId, Long upToId) {
+        Integer updated = transactionTemplate.execute(status ->
+                messageRepository.markConversationRead(userId, otherUserId, upToId));
+        unreadMessageLedger.recordRead(userId, otherUserId, updated != null ? updated : 0);
+        return getUnreadCounts(userId);
+    }
+
+    public UnreadCountDto getUnreadCounts(Long userId) {
+        Map<String, Long> byConversation = new LinkedHashMap<>();
+        unreadMessageLedger.bySender(userId).forEach((sender, count) -> byConversation.put(sender.toString(), count));
+        long broadcasts = broadcastReadTracker.unread(userId);
+        return UnreadCountDto.builder()
+                .total(unreadMessageLedger.total(userId) + broadcasts)
+                .broadcasts(broadcasts)
+                .byConversation(byConversation)
+                .build();
+    }
+
+    private MessagePageDto page(List<Message> messages, int pageSize) {
+        // One extra row was fetched to know whether another page exists
+        String nextCursor = null;
+        if (messages.size() > pageSize) {
+            messages = messages.subList(0, pageSize);
+            Message last = messages.get(pageSize - 1);
+            nextCursor = last.getTimestamp() + "_" + last.getId();
+        }
+        return MessagePageDto.builder()
+                .items(mapToDtos(messages))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 
     private MessageDto mapToDto(Message message) {
-        String senderName = userRepository.findById(message.getSenderId())
-                .map(u -> u.getFirstName() + " " + u.getLastName())
-                .orElse("Unknown");
+        return mapToDtos(List.of(message)).get(0);
+    }
+
+    private List<MessageDto> mapToDtos(List<Message> messages) {
+        Map<Long, String> names = userNames(messages);
+        return messages.stream()
+                .map(message -> toDto(message, names))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, String> userNames(Iterable<Message> messages) {
+        Set<Long> userIds = new HashSet<>();
+        for (Message message : messages) {
+            userIds.add(message.getSenderId());
+            if (message.getReceiverId() != null)
+                userIds.add(message.getReceiverId());
+        }
+        return userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, u -> u.getFirstName() + " " + u.getLastName()));
+    }
+
+    private MessageDto toDto(Message message, Map<Long, String> names) {
+        String senderName = names.getOrDefault(message.getSenderId(), "Unknown");
         String receiverName = message.getReceiverId() != null
-                ? userRepository.findById(message.getReceiverId())
-                        .map(u -> u.getFirstName() + " " + u.getLastName())
-                        .orElse("Unknown")
+                ? names.getOrDefault(message.getReceiverId(), "Unknown")
                 : null;
 
         return MessageDto.builder()
@@ -61,6 +267,22 @@ public class MessageService {
                 .content(message.getContent())
                 .timestamp(message.getTimestamp().toString())
                 .isRead(message.isRead())
+                .broadcast(message.isBroadcast())
                 .build();
     }
+
+    // "timestamp_id" of the oldest message on the previous page
+    private record Cursor(LocalDateTime time, Long id) {
+        static Cursor parse(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return new Cursor(null, null);
+            }
+            String[] parts = cursor.split("_");
+            try {
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor: " + cursor);
+            }
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.exceptions.ConflictException;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a read-modify-write that lost an optimistic-lock race. Used for
+ * server-side merges where the caller did not pin a version, so applying the
+ * change on top of the newer row is the intended outcome. The persistence
+ * context is cleared between attempts so the retry re-reads current state.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OptimisticRetry {
+
+    private final EntityManager entityManager;
+
+    @Value("${app.concurrency.max-attempts:3}")
+    private int maxAttempts;
+
+    public <T> T run(String what, Supplier<T> action) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return action.get();
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new ConflictException(what + " kept changing concurrently, try again");
+                }
+                log.debug("Optimistic lock conflict on {}, retrying ({}/{})", what, attempt, maxAttempts);
+                entityManager.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.models.Task;
+import com.hrms.hrmsbackend.models.enums.TaskStatus;
+import com.hrms.hrmsbackend.repositories.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fires due-soon and overdue events for open tasks from a delay queue keyed
+ * by deadline, so the only work done is for tasks whose deadline actually
+ * passes. A task's deadline is the end of its due date; it becomes due soon
+ * the configured number of hours before that.
+ * Rescheduling a task bumps its generation, and events from an older
+ * generation are dropped when they surface instead of being searched for.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskDeadlineScheduler {
+
+    private final TaskRepository taskRepository;
+    private final MessageService messageService;
+    private final TransactionTemplate transactionTemplate;
+    private final ZoneId zoneId = ZoneId.of("Asia/Kolkata");
+
+    private final DelayQueue<DeadlineEvent> queue = new DelayQueue<>();
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+    private final AtomicLong generationSeq = new AtomicLong();
+    private volatile Thread worker;
+
+    @Value("${app.tasks.due-soon-hours:24}")
+    private long dueSoonHours;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<TaskRepository.TaskDeadline> open = taskRepository.findOpenDeadlines();
+        open.forEach(t -> schedule(t.getId(), t.getDueDate()));
+        worker = new Thread(this::run, "task-deadlines");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Task deadline scheduler seeded with {} open tasks", open.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /** (Re)schedules a task's events, or cancels them once it is completed. */
+    public void track(Task task) {
+        if (task.getStatus() == TaskStatus.COMPLETED || task.getDueDate() == null) {
+            cancel(task.getId());
+        } else {
+            schedule(task.getId(), task.getDueDate());
+        }
+    }
+
+    public void cancel(Long taskId) {
+        generations.remove(taskId);
+    }
+
+    private void schedule(Long taskId, LocalDate dueDate) {
+        long generation = generationSeq.incrementAndGet();
+        generations.put(taskId, generation);
+        long deadline = dueDate.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+        long dueSoonAt = deadline - TimeUnit.HOURS.toMillis(dueSoonHours);
+        if (System.currentTimeMillis() < deadline) {
+            queue.add(new DeadlineEvent(taskId, generation, false, dueSoonAt));
+        }
+        queue.add(new DeadlineEvent(taskId, generation, true, deadline));
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                DeadlineEvent event = queue.take();
+                if (!Long.valueOf(event.generation).equals(generations.get(event.taskId))) {
+                    continue; // superseded by a later reschedule or cancel
+                }
+                fire(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Task deadline event failed", e);
+            }
+        }
+    }
+
+    private void fire(DeadlineEvent event) {
+        if (event.overdue) {
+            generations.remove(event.taskId, event.generation);
+        }
+        Task task = transactionTemplate.execute(status -> {
+            int flipped = event.overdue
+                    ? taskRepository.markOverdue(event.taskId)
+                    : taskRepository.markDueSoon(event.taskId);
+            return flipped == 0 ? null : taskRepository.findById(event.taskId).orElse(null);
+        });
+        // Sent once the flag is committed, so a rollback cannot leave a notification behind
+        if (task != null) {
+            notifyAssignee(task, event.overdue);
+        }
+    }
+
+    private void notifyAssignee(Task task, boolean overdue) {
+        if (task.getAssignedTo() == null) {
+            return;
+        }
+        String content = overdue
+                ? "Task \"" + task.getTitle() + "\" is overdue (due " + task.getDueDate() + ")"
+                : "Task \"" + task.getTitle() + "\" is due on " + task.getDueDate();
+        messageService.send(task.getAssignedBy() != null ? task.getAssignedBy() : task.getAssignedTo(),
+                task.getAssignedTo(), content);
+    }
+
+    private static final class DeadlineEvent implements Delayed {
+        private final Long taskId;
+        private final long generation;
+        private final boolean overdue;
+        private final long fireAtMillis;
+
+        DeadlineEvent(Long taskId, long generation, boolean overdue, long fireAtMillis) {
+            this.taskId = taskId;
+            this.generation = generation;
+            this.overdue = overdue;
+            this.fireAtMillis = fireAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(fireAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(fireAtMillis, ((DeadlineEvent) other).fireAtMillis);
+        }
+    }
+}
@@ -1,35 +1,193 @@
 package com.hrms.hrmsbackend.services;
 
+import com.hrms.hrmsbackend.dtos.CoreDtos.BulkTaskResultDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.BulkTaskUpdateDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.TagCountDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.TaskBoardCellDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.TaskBoardSummaryDto;
 import com.hrms.hrmsbackend.dtos.CoreDtos.TaskDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.TaskPageDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.TaskReassignDto;
+import com.hrms.hrmsbackend.exceptions.ConflictException;
 import com.hrms.hrmsbackend.models.Task;
+import com.hrms.hrmsbackend.models.User;
 import com.hrms.hrmsbackend.models.enums.TaskPriority;
 import com.hrms.hrmsbackend.models.enums.TaskStatus;
 import com.hrms.hrmsbackend.repositories.TaskRepository;
 import com.hrms.hrmsbackend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TaskService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String NO_DUE_DATE = "none";
+    private static final Sort BY_DUE_DATE = Sort.by("dueDate", "id");
+    private static final Sort BY_ID = Sort.by("id");
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final TaskTagIndex taskTagIndex;
+    private final TaskDeadlineScheduler taskDeadlineScheduler;
+    private final OptimisticRetry optimisticRetry;
 
     public List<TaskDto> getAllTasks() {
-        return taskRepository.findAll().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return mapToDtos(taskRepository.findAll());
+    }
+
+    public List<TaskDto> getTasksByTags(List<String> tags, boolean matchAll) {
+        List<Long> ids = taskTagIndex.match(tags, matchAll);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Task> tasks = new ArrayList<>(taskRepository.findAllById(ids));
+        tasks.sort(Comparator.comparing(Task::getId));
+        return mapToDtos(tasks);
+    }
+
+    public List<TagCountDto> getTagCloud() {
+        return taskTagIndex.tagCounts();
     }
 
     public List<TaskDto> getTasksByAssignee(Long employeeId) {
-        return taskRepository.findByAssignedTo(employeeId).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return mapToDtos(taskRepository.findByAssignedTo(employeeId));
+    }
+
+    /**
+     * One page of tasks ordered by due date then id, tasks without a due date
+     * last. The cursor is the "dueDate_id" of the last task on the previous
+     * page ("none_id" once into the undated tasks), so each page is an index
+     * range scan regardless of how deep the client has paged. Only the given
+     * filters become predicates, so each combination gets a plain query its
+     * index can serve.
+     */
+    public TaskPageDto queryTasks(Long assignedTo, String status, String priority, LocalDate dueFrom,
+            LocalDate dueTo, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        boolean undated = false;
+        LocalDate afterDue = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = cursor.split("_");
+            try {
+                undated = NO_DUE_DATE.equals(parts[0]);
+                afterDue = undated ? null : LocalDate.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor: " + cursor);
+            }
+        }
+        Specification<Task> filters = taskFilters(assignedTo,
+                status != null ? TaskStatus.valueOf(status.toUpperCase()) : null,
+                priority != null ? TaskPriority.valueOf(priority.toUpperCase()) : null,
+                dueFrom, dueTo);
+
+        // Fetch one extra row to know whether another page exists
+        List<Task> tasks = new ArrayList<>();
+        if (!undated) {
+            tasks.addAll(fetchTasks(filters.and(datedAfter(afterDue, afterId)), BY_DUE_DATE, pageSize + 1));
+        }
+        // Undated tasks follow the dated ones; a due date range excludes them anyway
+        if (tasks.size() <= pageSize && dueFrom == null && dueTo == null) {
+            tasks.addAll(fetchTasks(filters.and(undatedAfter(undated ? afterId : null)), BY_ID,
+                    pageSize + 1 - tasks.size()));
+        }
+
+        String nextCursor = null;
+        if (tasks.size() > pageSize) {
+            tasks = tasks.subList(0, pageSize);
+            Task last = tasks.get(pageSize - 1);
+            nextCursor = (last.getDueDate() != null ? last.getDueDate().toString() : NO_DUE_DATE) + "_"
+                    + last.getId();
+        }
+        return TaskPageDto.builder()
+                .items(mapToDtos(tasks))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private List<Task> fetchTasks(Specification<Task> spec, Sort sort, int limit) {
+        return taskRepository.findBy(spec, query -> query.sortBy(sort).limit(limit).all());
+    }
+
+    private static Specification<Task> taskFilters(Long assignedTo, TaskStatus status, TaskPriority priority,
+            LocalDate dueFrom, LocalDate dueTo) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (assignedTo != null)
+                predicates.add(cb.equal(root.get("assignedTo"), assignedTo));
+            if (status != null)
+                predicates.add(cb.equal(root.get("status"), status));
+            if (priority != null)
+                predicates.add(cb.equal(root.get("priority"), priority));
+            if (dueFrom != null)
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), dueFrom));
+            if (dueTo != null)
+                predicates.add(cb.lessThanOrEqualTo(root.get("dueDate"), dueTo));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static Specification<Task> datedAfter(LocalDate afterDue, Long afterId) {
+        return (root, query, cb) -> {
+            Path<LocalDate> due = root.get("dueDate");
+            if (afterDue == null)
+                return cb.isNotNull(due);
+            return cb.or(cb.greaterThan(due, afterDue),
+                    cb.and(cb.equal(due, afterDue), cb.greaterThan(root.get("id"), afterId)));
+        };
+    }
+
+    private static Specification<Task> undatedAfter(Long afterId) {
+        return (root, query, cb) -> afterId == null
+                ? cb.isNull(root.get("dueDate"))
+                : cb.and(cb.isNull(root.get("dueDate")), cb.greaterThan(root.get("id"), afterId));
+    }
+
+    public TaskBoardSummaryDto getBoardSummary() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status.name().toLowerCase(), 0L);
+        }
+        List<TaskBoardCellDto> cells = new ArrayList<>();
+        long total = 0;
+        for (TaskRepository.StatusPriorityCount c : taskRepository.countByStatusAndPriority()) {
+            if (c.getStatus() == null || c.getPriority() == null) {
+                continue;
+            }
+            byStatus.merge(c.getStatus().name().toLowerCase(), c.getTotal(), Long::sum);
+            cells.add(TaskBoardCellDto.builder()
+                    .status(c.getStatus().name().toLowerCase())
+                    .priority(c.getPriority().name().toLowerCase())
+                    .count(c.getTotal())
+                    .build());
+            total += c.getTotal();
+        }
+        return TaskBoardSummaryDto.builder()
+                .total(total)
+                .byStatus(byStatus)
+                .cells(cells)
+                .build();
     }
 
     public TaskDto createTask(TaskDto dto) {
@@ -44,11 +202,30 @@ public class TaskService {
                 .progress(0)
                 .tags(dto.getTags())
                 .build();
-        return mapToDto(taskRepository.save(task));
+        Task saved = taskRepository.save(task);
+        taskTagIndex.put(saved.getId(), saved.getTags());
+        taskDeadlineScheduler.track(saved);
+        return mapToDto(saved);
     }
 
-    public TaskDto updateTask(Long id, TaskDto dto) {
+    /**
+     * Applies the non-null fields of the dto. With an expected version the
+     * update is conditional and fails with a conflict if the task has moved
+     * on; without one it is merged onto the latest version, retrying if a
+     * concurrent edit lands in between.
+     */
+    public TaskDto updateTask(Long id, TaskDto dto, Long expectedVersion) {
+        if (expectedVersion != null) {
+            return applyUpdate(id, dto, expectedVersion);
+        }
+        return optimisticRetry.run("Task " + id, () -> applyUpdate(id, dto, null));
+    }
+
+    private TaskDto applyUpdate(Long id, TaskDto dto, Long expectedVersion) {
         Task task = taskRepository.findById(id).orElseThrow(() -> new RuntimeException("Task not found"));
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new ConflictException("Task " + id + " was modified by someone else");
+        }
 
         if (dto.getTitle() != null)
             task.setTitle(dto.getTitle());
@@ -56,22 +233,102 @@ public class TaskService {
             task.setDescription(dto.getDescription());
         if (dto.getAssignedToId() != null)
             task.setAssignedTo(parseId(dto.getAssignedToId()));
-        if (dto.getDueDate() != null)
-            task.setDueDate(LocalDate.parse(dto.getDueDate()));
+        boolean deadlineChanged = false;
+        if (dto.getDueDate() != null) {
+            LocalDate dueDate = LocalDate.parse(dto.getDueDate());
+            deadlineChanged = !dueDate.equals(task.getDueDate());
+            task.setDueDate(dueDate);
+        }
         if (dto.getPriority() != null)
             task.setPriority(TaskPriority.valueOf(dto.getPriority().toUpperCase()));
-        if (dto.getStatus() != null)
-            task.setStatus(TaskStatus.valueOf(dto.getStatus().toUpperCase()));
+        if (dto.getStatus() != null) {
+            TaskStatus status = TaskStatus.valueOf(dto.getStatus().toUpperCase());
+            deadlineChanged |= (status == TaskStatus.COMPLETED) != (task.getStatus() == TaskStatus.COMPLETED);
+            task.setStatus(status);
+        }
         if (dto.getProgress() != null)
             task.setProgress(dto.getProgress());
         if (dto.getTags() != null)
             task.setTags(dto.getTags());
 
-        return mapToDto(taskRepository.save(task));
+        Task saved = taskRepository.save(task);
+        if (dto.getTags() != null)
+            taskTagIndex.put(saved.getId(), saved.getTags());
+        if (deadlineChanged) {
+            // Flags are re-derived by the scheduler against the new deadline
+            taskRepository.clearDeadlineFlags(saved.getId());
+            saved.setOverdue(false);
+            saved.setDueSoon(false);
+            taskDeadlineScheduler.track(saved);
+        }
+        return mapToDto(saved);
+    }
+
+    /**
+     * Applies the same status/progress/priority/assignee change to many tasks
+     * in one transaction, as one UPDATE per changed field rather than a load
+     * and save per task. Ids that do not exist are reported back.
+     */
+    @Transactional
+    public BulkTaskResultDto updateBulk(BulkTaskUpdateDto dto) {
+        if (dto.getIds() == null || dto.getIds().isEmpty()) {
+            throw new RuntimeException("No task ids given");
+        }
+        Set<Long> existing = new HashSet<>(taskRepository.findExistingIds(dto.getIds()));
+        List<String> notFound = dto.getIds().stream()
+                .filter(id -> !existing.contains(id))
+                .distinct()
+                .map(String::valueOf)
+                .collect(Collectors.toList());
+        if (existing.isEmpty()) {
+            return BulkTaskResultDto.builder().updated(0).notFound(notFound).build();
+        }
+
+        TaskStatus status = dto.getStatus() != null ? TaskStatus.valueOf(dto.getStatus().toUpperCase()) : null;
+        if (status == TaskStatus.COMPLETED)
+            taskRepository.markCompleted(existing);
+        else if (status != null)
+            taskRepository.updateStatus(existing, status);
+        if (dto.getProgress() != null)
+            taskRepository.updateProgress(existing, dto.getProgress());
+        if (dto.getPriority() != null)
+            taskRepository.updatePriority(existing, TaskPriority.valueOf(dto.getPriority().toUpperCase()));
+        if (dto.getAssignedToId() != null) {
+            Long assignee = parseId(dto.getAssignedToId());
+            if (assignee == null || !userRepository.existsById(assignee))
+                throw new RuntimeException("Assignee not found");
+            taskRepository.updateAssignee(existing, assignee);
+        }
+
+        if (status != null) {
+            List<Task> changed = taskRepository.findAllById(existing);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed.forEach(taskDeadlineScheduler::track);
+                }
+            });
+        }
+        return BulkTaskResultDto.builder().updated(existing.size()).notFound(notFound).build();
+    }
+
+    /** Hands every open task of one user to another in a single UPDATE. */
+    @Transactional
+    public BulkTaskResultDto reassignOpenTasks(TaskReassignDto dto) {
+        if (dto.getFromUserId() == null || dto.getToUserId() == null) {
+            throw new RuntimeException("Both fromUserId and toUserId are required");
+        }
+        if (!userRepository.existsById(dto.getToUserId())) {
+            throw new RuntimeException("Target user not found");
+        }
+        int updated = taskRepository.reassignOpenTasks(dto.getFromUserId(), dto.getToUserId());
+        return BulkTaskResultDto.builder().updated(updated).notFound(List.of()).build();
     }
 
     public void deleteTask(Long id) {
         taskRepository.deleteById(id);
+        taskTagIndex.remove(id);
+        taskDeadlineScheduler.cancel(id);
     }
 
     private Long parseId(String idStr) {
@@ -83,15 +340,31 @@ public class TaskService {
     }
 
     private TaskDto mapToDto(Task task) {
-        String assigneeName = userRepository.findById(task.getAssignedTo())
-                .map(u -> u.getFirstName() + " " + u.getLastName())
-                .orElse("Unknown");
+        return mapToDtos(List.of(task)).get(0);
+    }
+
+    // Resolves assignee and assigner names for the whole list in one lookup
+    private List<TaskDto> mapToDtos(List<Task> tasks) {
+        Set<Long> userIds = new HashSet<>();
+        for (Task task : tasks) {
+            if (task.getAssignedTo() != null)
+                userIds.add(task.getAssignedTo());
+            if (task.getAssignedBy() != null)
+                userIds.add(task.getAssignedBy());
+        }
+        Map<Long, String> names = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, u -> u.getFirstName() + " " + u.getLastName()));
+        return tasks.stream()
+                .map(task -> toDto(task, names))
+                .collect(Collectors.toList());
+    }
+
+    private TaskDto toDto(Task task, Map<Long, String> names) {
+        String assigneeName = names.getOrDefault(task.getAssignedTo(), "Unknown");
 
         String assignedByName = "System";
         if (task.getAssignedBy() != null) {
-            assignedByName = userRepository.findById(task.getAssignedBy())
-                    .map(u -> u.getFirstName() + " " + u.getLastName())
-                    .orElse("Unknown");
+            assignedByName = names.getOrDefault(task.getAssignedBy(), "Unknown");
         }
 
         return TaskDto.builder()
@@ -101,12 +374,15 @@ public class TaskService {
                 .assignedTo(assigneeName) // Frontend expects name usually in list
                 .assignedToId(task.getAssignedTo().toString())
                 .assignedBy(assignedByName)
-                .dueDate(task.getDueDate().toString())
+                .dueDate(task.getDueDate() != null ? task.getDueDate().toString() : null)
                 .priority(task.getPriority().name().toLowerCase())
                 .status(task.getStatus().name().toLowerCase())
                 .progress(task.getProgress())
                 .createdAt(task.getCreatedAt().toString())
                 .tags(task.getTags())
+                .overdue(task.isOverdue())
+                .dueSoon(task.isDueSoon())
+                .version(task.getVersion())
                 .build();
     }
 }
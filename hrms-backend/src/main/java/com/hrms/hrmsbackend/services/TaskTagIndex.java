@@ -0,0 +1,220 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.TagCountDto;
+import com.hrms.hrmsbackend.repositories.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from tag to the set of task ids carrying it, one bitmap per
+ * tag. Tag filters become bitmap AND/OR operations and the tag cloud is one
+ * cardinality per tag, with no scan of tasks or their tag rows. Tags are
+ * matched case-insensitively. Ids that do not fit a bitmap position (negative
+ * or above Integer.MAX_VALUE) are kept in a sorted set next to the bitmap
+ * rather than truncated.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskTagIndex {
+
+    private final TaskRepository taskRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> tasksByTag = new HashMap<>();
+    private final Map<Long, Set<String>> tagsByTask = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<TaskRepository.TaskTag> rows = taskRepository.findAllTaskTags();
+        lock.writeLock().lock();
+        try {
+            tasksByTag.clear();
+            tagsByTask.clear();
+            for (TaskRepository.TaskTag row : rows) {
+                String tag = normalize(row.getTag());
+                if (tag != null) {
+                    tasksByTag.computeIfAbsent(tag, t -> new Postings()).add(row.getTaskId());
+                    tagsByTask.computeIfAbsent(row.getTaskId(), id -> new LinkedHashSet<>()).add(tag);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Task tag index loaded with {} tags over {} tasks", tasksByTag.size(), tagsByTask.size());
+    }
+
+    /** Replaces the indexed tags of a task after it is created or updated. */
+    public void put(Long taskId, Collection<String> tags) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(taskId);
+            if (tags == null) {
+                return;
+            }
+            Set<String> normalized = new LinkedHashSet<>();
+            for (String raw : tags) {
+                String tag = normalize(raw);
+                if (tag != null) {
+                    normalized.add(tag);
+                    tasksByTag.computeIfAbsent(tag, t -> new Postings()).add(taskId);
+                }
+            }
+            if (!normalized.isEmpty()) {
+                tagsByTask.put(taskId, normalized);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long taskId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Ids of tasks carrying all (or, with matchAll false, any) of the given tags, ascending. */
+    public List<Long> match(Collection<String> tags, boolean matchAll) {
+        lock.readLock().lock();
+        try {
+            Postings result = null;
+            for (String raw : tags) {
+                String tag = normalize(raw);
+                if (tag == null) {
+                    continue;
+                }
+                Postings postings = tasksByTag.getOrDefault(tag, new Postings());
+                if (result == null) {
+                    result = postings.copy();
+                } else if (matchAll) {
+                    result.and(postings);
+                } else {
+                    result.or(postings);
+                }
+            }
+            return result != null ? result.ids() : new ArrayList<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Tag cloud: every tag with the number of tasks carrying it, most used first. */
+    public List<TagCountDto> tagCounts() {
+        lock.readLock().lock();
+        try {
+            List<TagCountDto> counts = new ArrayList<>(tasksByTag.size());
+            tasksByTag.forEach((tag, postings) -> counts.add(TagCountDto.builder()
+                    .tag(tag)
+                    .count(postings.cardinality())
+                    .build()));
+            counts.sort(Comparator.comparingInt(TagCountDto::getCount).reversed()
+                    .thenComparing(TagCountDto::getTag));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long taskId) {
+        Set<String> previous = tagsByTask.remove(taskId);
+        if (previous == null) {
+            return;
+        }
+        for (String tag : previous) {
+            Postings postings = tasksByTag.get(tag);
+            if (postings != null) {
+                postings.remove(taskId);
+                if (postings.isEmpty()) {
+                    tasksByTag.remove(tag);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String tag) {
+        if (tag == null || tag.isBlank()) {
+            return null;
+        }
+        return tag.trim().toLowerCase();
+    }
+
+    /** Task ids of one tag: a bitmap for ids in int range, a sorted set for the rest. */
+    private static final class Postings {
+        private final BitSet bits = new BitSet();
+        private final NavigableSet<Long> large = new TreeSet<>();
+
+        private static boolean fitsBitmap(long id) {
+            return id >= 0 && id <= Integer.MAX_VALUE;
+        }
+
+        void add(long id) {
+            if (fitsBitmap(id)) {
+                bits.set((int) id);
+            } else {
+                large.add(id);
+            }
+        }
+
+        void remove(long id) {
+            if (fitsBitmap(id)) {
+                bits.clear((int) id);
+            } else {
+                large.remove(id);
+            }
+        }
+
+        boolean isEmpty() {
+            return bits.isEmpty() && large.isEmpty();
+        }
+
+        int cardinality() {
+            return bits.cardinality() + large.size();
+        }
+
+        Postings copy() {
+            Postings copy = new Postings();
+            copy.bits.or(bits);
+            copy.large.addAll(large);
+            return copy;
+        }
+
+        void and(Postings other) {
+            bits.and(other.bits);
+            large.retainAll(other.large);
+        }
+
+        void or(Postings other) {
+            bits.or(other.bits);
+            large.addAll(other.large);
+        }
+
+        /** All ids ascending; negative ids first, then bitmap ids, then ids above int range. */
+        List<Long> ids() {
+            List<Long> ids = new ArrayList<>(cardinality());
+            large.headSet(0L, false).forEach(ids::add);
+            bits.stream().forEach(i -> ids.add((long) i));
+            large.tailSet(0L, false).forEach(ids::add);
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.TimesheetDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.TimesheetRowDto;
+import com.hrms.hrmsbackend.models.Attendance;
+import com.hrms.hrmsbackend.models.LeaveRequest;
+import com.hrms.hrmsbackend.models.User;
+import com.hrms.hrmsbackend.models.enums.AttendanceStatus;
+import com.hrms.hrmsbackend.models.enums.LeaveStatus;
+import com.hrms.hrmsbackend.models.enums.UserStatus;
+import com.hrms.hrmsbackend.repositories.AttendanceRepository;
+import com.hrms.hrmsbackend.repositories.LeaveRepository;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds monthly timesheets for the whole workforce in one pass: one ordered
+ * scan of the month's attendance and approved leaves, split into per-employee
+ * work units that are summed on a fork-join pool. Results are cached per month
+ * (least recently used months are evicted). Attendance and leave changes mark
+ * only the affected employee dirty in the affected months, and the next read
+ * recomputes just those rows; calendar changes and day closes rebuild the month.
+ */
+@Service
+@RequiredArgsConstructor
+public class TimesheetService {
+
+    private static final int UNITS_PER_TASK = 32;
+
+    private final AttendanceRepository attendanceRepository;
+    private final LeaveRepository leaveRepository;
+    private final UserRepository userRepository;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final ZoneId zoneId = ZoneId.of("Asia/Kolkata");
+
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final Map<YearMonth, MonthState> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Value("${app.timesheet.standard-hours:8}")
+    private double standardHours;
+
+    @Value("${app.timesheet.cache-months:24}")
+    private int cacheMonths;
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /** Called when one employee's attendance or approved leave within [from, to] changes. */
+    public void invalidateEmployee(Long employeeId, LocalDate from, LocalDate to) {
+        for (MonthState state : cachedMonths(from, to)) {
+            state.markDirty(employeeId);
+        }
+    }
+
+    /** Called when data of many employees, or the calendar, changes within [from, to]. */
+    public void invalidateRange(LocalDate from, LocalDate to) {
+        for (MonthState state : cachedMonths(from, to)) {
+            state.markDirty(null);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public TimesheetDto getTimesheet(YearMonth month) {
+        MonthState state;
+        synchronized (cache) {
+            state = cache.computeIfAbsent(month, m -> new MonthState());
+            while (cache.size() > cacheMonths) {
+                Iterator<YearMonth> eldest = cache.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+
+        long version;
+        TimesheetDto cached;
+        Set<Long> dirty;
+        boolean rebuild;
+        synchronized (state) {
+            if (state.timesheet != null && !state.allDirty && state.dirtyEmployees.isEmpty()) {
+                return state.timesheet;
+            }
+            version = state.version;
+            cached = state.timesheet;
+            dirty = Set.copyOf(state.dirtyEmployees);
+            rebuild = cached == null || state.allDirty;
+        }
+
+        TimesheetDto generated = rebuild ? generate(month) : patch(month, cached, dirty);
+        synchronized (state) {
+            // Kept only if nothing was invalidated while computing; otherwise the next read refreshes again
+            if (state.version == version) {
+                state.timesheet = generated;
+                state.allDirty = false;
+                state.dirtyEmployees.clear();
+            }
+        }
+        return generated;
+    }
+
+    public void writeCsv(TimesheetDto timesheet, Writer writer) throws IOException {
+        writer.write("employeeId,employeeName,daysPresent,daysLate,daysAbsent,leaveDays,hoursWorked,overtimeHours\n");
+        for (TimesheetRowDto row : timesheet.getRows()) {
+            writer.write(row.getEmployeeId() + "," + csvEscape(row.getEmployeeName()) + ","
+                    + row.getDaysPresent() + "," + row.getDaysLate() + "," + row.getDaysAbsent() + ","
+                    + row.getLeaveDays() + "," + row.getHoursWorked() + "," + row.getOvertimeHours() + "\n");
+        }
+        writer.flush();
+    }
+
+    private TimesheetDto generate(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.atEndOfMonth();
+
+        List<Attendance> attendance = attendanceRepository.findByDateBetweenOrderByEmployeeIdAscDateAsc(from, to);
+        List<LeaveRequest> leaves = leaveRepository.findOverlapping(LeaveStatus.APPROVED, from, to);
+        List<User> users = new ArrayList<>(userRepository.findAll());
+        users.sort(Comparator.comparing(User::getId));
+
+        // Merge the three id-ordered lists into per-employee units
+        List<WorkUnit> units = new ArrayList<>(users.size());
+        int a = 0;
+        int l = 0;
+        for (User user : users) {
+            Long id = user.getId();
+            while (a < attendance.size() && attendance.get(a).getEmployeeId() < id) {
+                a++;
+            }
+            int aStart = a;
+            while (a < attendance.size() && attendance.get(a).getEmployeeId().equals(id)) {
+                a++;
+            }
+            while (l < leaves.size() && leaves.get(l).getEmployeeId() < id) {
+                l++;
+            }
+            int lStart = l;
+            while (l < leaves.size() && leaves.get(l).getEmployeeId().equals(id)) {
+                l++;
+            }
+            if (user.getStatus() != UserStatus.INACTIVE || a > aStart || l > lStart) {
+                units.add(new WorkUnit(user, attendance.subList(aStart, a), leaves.subList(lStart, l)));
+            }
+        }
+
+        List<TimesheetRowDto> rows = pool.invoke(new TimesheetTask(units, 0, units.size(), from, to));
+
+        return TimesheetDto.builder()
+                .month(month.toString())
+                .generatedAt(LocalDateTime.now(zoneId).toString())
+                .rows(rows)
+                .build();
+    }
+
+    /** Recomputes the rows of the given employees on top of a cached timesheet. */
+    private TimesheetDto patch(YearMonth month, TimesheetDto cached, Set<Long> employeeIds) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.atEndOfMonth();
+        Map<Long, TimesheetRowDto> rows = new TreeMap<>();
+        for (TimesheetRowDto row : cached.getRows()) {
+            rows.put(Long.parseLong(row.getEmployeeId()), row);
+        }
+        for (User user : userRepository.findAllById(employeeIds)) {
+            List<Attendance> attendance = attendanceRepository.findByEmployeeIdAndDateBetweenOrderByDateAsc(
+                    user.getId(), from, to);
+            List<LeaveRequest> leaves = leaveRepository.findOverlappingForEmployee(user.getId(),
+                    LeaveStatus.APPROVED, from, to);
+            if (user.getStatus() != UserStatus.INACTIVE || !attendance.isEmpty() || !leaves.isEmpty()) {
+                rows.put(user.getId(), summarize(new WorkUnit(user, attendance, leaves), from, to));
+            } else {
+                rows.remove(user.getId());
+            }
+        }
+        return TimesheetDto.builder()
+                .month(month.toString())
+                .generatedAt(LocalDateTime.now(zoneId).toString())
+                .rows(new ArrayList<>(rows.values()))
+                .build();
+    }
+
+    private List<MonthState> cachedMonths(LocalDate from, LocalDate to) {
+        List<MonthState> states = new ArrayList<>();
+        synchronized (cache) {
+            for (YearMonth m = YearMonth.from(from); !m.isAfter(YearMonth.from(to)); m = m.plusMonths(1)) {
+                MonthState state = cache.get(m);
+                if (state != null) {
+                    states.add(state);
+                }
+            }
+        }
+        return states;
+    }
+
+    private TimesheetRowDto summarize(WorkUnit unit, LocalDate from, LocalDate to) {
+        int present = 0;
+        int late = 0;
+        int absent = 0;
+        double hours = 0;
+        double overtime = 0;
+
+        for (Attendance att : unit.attendance) {
+            AttendanceStatus status = att.getStatus();
+            if (status == AttendanceStatus.PRESENT || status == AttendanceStatus.LATE
+                    || status == AttendanceStatus.HALF_DAY) {
+                present++;
+            }
+            if (status == AttendanceStatus.LATE) {
+                late++;
+            }
+            if (status == AttendanceStatus.ABSENT) {
+                absent++;
+            }
+            if (att.getHoursWorked() != null) {
+                hours += att.getHoursWorked();
+                overtime += Math.max(0, att.getHoursWorked() - standardHours);
+            }
+        }
+
+        double leaveDays = 0;
+        for (LeaveRequest leave : unit.leaves) {
+            LocalDate start = leave.getStartDate().isBefore(from) ? from : leave.getStartDate();
+            LocalDate end = leave.getEndDate().isAfter(to) ? to : leave.getEndDate();
+            leaveDays += workingDayCalendar.workingDaysBetween(start, end);
+        }
+
+        return TimesheetRowDto.builder()
+                .employeeId(unit.user.getId().toString())
+                .employeeName(unit.user.getFirstName() + " " + unit.user.getLastName())
+                .daysPresent(present)
+                .daysLate(late)
+                .daysAbsent(absent)
+                .leaveDays(leaveDays)
+                .hoursWorked(round(hours))
+                .overtimeHours(round(overtime))
+                .build();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private class TimesheetTask extends RecursiveTask<List<TimesheetRowDto>> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<WorkUnit> units;
+        private final int lo;
+        private final int hi;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        TimesheetTask(List<WorkUnit> units, int lo, int hi, LocalDate from, LocalDate to) {
+            this.units = units;
+            this.lo = lo;
+            this.hi = hi;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<TimesheetRowDto> compute() {
+            if (hi - lo <= UNITS_PER_TASK) {
+                List<TimesheetRowDto> rows = new ArrayList<>(hi - lo);
+                for (int i = lo; i < hi; i++) {
+                    rows.add(summarize(units.get(i), from, to));
+                }
+                return rows;
+            }
+            int mid = (lo + hi) >>> 1;
+            TimesheetTask left = new TimesheetTask(units, lo, mid, from, to);
+            left.fork();
+            List<TimesheetRowDto> right = new TimesheetTask(units, mid, hi, from, to).compute();
+            List<TimesheetRowDto> rows = new ArrayList<>(left.join());
+            rows.addAll(right);
+            return rows;
+        }
+    }
+
+    private record WorkUnit(User user, List<Attendance> attendance, List<LeaveRequest> leaves) {
+    }
+
+    /**
+     * Cached timesheet of one month plus what changed since it was built;
+     * version counts invalidations so a refresh that raced one is not kept.
+     */
+    private static class MonthState {
+        private TimesheetDto timesheet;
+        private long version;
+        private boolean allDirty;
+        private final Set<Long> dirtyEmployees = new HashSet<>();
+
+        synchronized void markDirty(Long employeeId) {
+            version++;
+            if (employeeId == null) {
+                allDirty = true;
+            } else {
+                dirtyEmployees.add(employeeId);
+            }
+        }
+    }
+}
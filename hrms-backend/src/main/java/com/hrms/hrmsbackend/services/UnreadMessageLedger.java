@@ -0,0 +1,85 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.repositories.MessageRepository;
+import com.hrms.hrmsbackend.repositories.MessageRepository.UnreadCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unread direct-message counts per receiver and sender, loaded once at
+ * startup and adjusted as messages are sent and read, so badge lookups never
+ * touch the messages table. Callers adjust only after the change committed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadMessageLedger {
+
+    private final MessageRepository messageRepository;
+
+    private final Map<Long, Map<Long, AtomicLong>> bySender = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> totals = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        List<UnreadCount> counts = messageRepository.countUnread();
+        bySender.clear();
+        totals.clear();
+        for (UnreadCount count : counts) {
+            add(count.getReceiverId(), count.getSenderId(), count.getUnread());
+        }
+        log.info("Unread message ledger loaded for {} receivers", totals.size());
+    }
+
+    public long total(Long receiverId) {
+        AtomicLong total = totals.get(receiverId);
+        return total != null ? total.get() : 0;
+    }
+
+    public long fromSender(Long receiverId, Long senderId) {
+        Map<Long, AtomicLong> senders = bySender.get(receiverId);
+        AtomicLong count = senders != null ? senders.get(senderId) : null;
+        return count != null ? count.get() : 0;
+    }
+
+    /** Non-zero counts by sender. */
+    public Map<Long, Long> bySender(Long receiverId) {
+        Map<Long, Long> counts = new HashMap<>();
+        Map<Long, AtomicLong> senders = bySender.get(receiverId);
+        if (senders != null) {
+            senders.forEach((sender, count) -> {
+                long value = count.get();
+                if (value > 0) {
+                    counts.put(sender, value);
+                }
+            });
+        }
+        return counts;
+    }
+
+    public void recordSent(Long receiverId, Long senderId) {
+        add(receiverId, senderId, 1);
+    }
+
+    public void recordRead(Long receiverId, Long senderId, long count) {
+        if (count > 0) {
+            add(receiverId, senderId, -count);
+        }
+    }
+
+    private void add(Long receiverId, Long senderId, long delta) {
+        bySender.computeIfAbsent(receiverId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(senderId, id -> new AtomicLong())
+                .addAndGet(delta);
+        totals.computeIfAbsent(receiverId, id -> new AtomicLong()).addAndGet(delta);
+    }
+}
@@ -12,7 +12,12 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final com.hrms.hrmsbackend.repositories.DepartmentRepository departmentRepository;
+    private final FileDownloadService fileDownloadService;
+    private final BlobStorageService blobStorageService;
+    private final AvatarRenditionService avatarRenditionService;
+    private final AnnouncementService announcementService;
 
+    @org.springframework.transaction.annotation.Transactional
     public void updateProfile(Long userId, ProfileUpdateDto dto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -25,10 +30,15 @@ public class UserService {
             } else {
                 user.setLastName("");
             }
+            announcementService.invalidateFeed(); // poster names are baked into the feed
         }
 
-        if (dto.getAvatar() != null) {
+        // Our own avatar URL echoed back means "unchanged"
+        if (dto.getAvatar() != null && !dto.getAvatar().contains("/api/files/avatars/")) {
+            String previous = user.getAvatar();
             user.setAvatar(dto.getAvatar());
+            blobStorageService.release(BlobStorageService.hashOf(previous));
+            avatarRenditionService.releaseRenditions(user);
         }
 
         userRepository.save(user);
@@ -51,36 +61,26 @@ public class UserService {
                 .lastName(user.getLastName())
                 .email(user.getEmail())
                 .role(user.getRole().name().toLowerCase())
-                .avatar(user.getAvatar())
+                .avatar(fileDownloadService.avatarUrl(user))
+                .avatarRenditions(fileDownloadService.avatarRenditionUrls(user))
                 .department(deptName)
                 .isFirstLogin(user.isFirstLogin())
                 .build();
     }
 
+    // The avatar column holds a blob reference; the previous avatar and its renditions are released
+    // and new renditions are built in the background
+    @org.springframework.transaction.annotation.Transactional
     public void uploadAvatar(Long userId, org.springframework.web.multipart.MultipartFile file) {
-        try {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            String uploadDir = "uploads/avatars/";
-            java.nio.file.Path uploadPath = java.nio.file.Paths.get(uploadDir);
-            if (!java.nio.file.Files.exists(uploadPath)) {
-                java.nio.file.Files.createDirectories(uploadPath);
-            }
-
-            String fileName = java.util.UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            java.nio.file.Path filePath = uploadPath.resolve(fileName);
-            java.nio.file.Files.copy(file.getInputStream(), filePath,
-                    java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-
-            String baseUrl = org.springframework.web.servlet.support.ServletUriComponentsBuilder
-                    .fromCurrentContextPath().build().toUriString();
-            String fileUrl = baseUrl + "/uploads/avatars/" + fileName;
-            user.setAvatar(fileUrl);
-            userRepository.save(user);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
-        } catch (java.io.IOException e) {
-            throw new RuntimeException("Could not store file " + file.getOriginalFilename() + ". Please try again!", e);
-        }
+        com.hrms.hrmsbackend.models.StoredBlob blob = blobStorageService.store(file);
+        String previous = user.getAvatar();
+        user.setAvatar(BlobStorageService.ref(blob.getHash()));
+        blobStorageService.release(BlobStorageService.hashOf(previous));
+        avatarRenditionService.releaseRenditions(user);
+        userRepository.save(user);
+        avatarRenditionService.schedule(userId, user.getAvatar());
     }
 }
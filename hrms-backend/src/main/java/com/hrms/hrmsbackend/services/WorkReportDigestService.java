@@ -0,0 +1,186 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.DigestEmployeeDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.TeamDigestDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.WeeklyDigestDto;
+import com.hrms.hrmsbackend.models.Department;
+import com.hrms.hrmsbackend.models.User;
+import com.hrms.hrmsbackend.models.enums.UserStatus;
+import com.hrms.hrmsbackend.repositories.DepartmentRepository;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import com.hrms.hrmsbackend.repositories.UserRepository.UserDepartment;
+import com.hrms.hrmsbackend.repositories.WorkReportRepository;
+import com.hrms.hrmsbackend.repositories.WorkReportRepository.EmployeeReportCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Weekly per-department work report digests. A scheduled job builds the
+ * digest of the week that just ended from one grouped query over the date
+ * index and caches it, so requests only filter the cached copy. Edits to a
+ * cached week drop it and the next request rebuilds it once. Only the most
+ * recent weeks are cached; older weeks are rebuilt on every request.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkReportDigestService {
+
+    private final WorkReportRepository workReportRepository;
+    private final UserRepository userRepository;
+    private final DepartmentRepository departmentRepository;
+    private final ZoneId zoneId = ZoneId.of("Asia/Kolkata");
+
+    // Keyed by the Monday starting each week
+    private final ConcurrentSkipListMap<LocalDate, WeeklyDigestDto> cache = new ConcurrentSkipListMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    @Value("${app.work-reports.digest.weeks-retained:12}")
+    private int weeksRetained;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        getDigest(lastCompletedWeek());
+    }
+
+    @Scheduled(cron = "${app.work-reports.digest.cron:0 0 1 * * MON}", zone = "Asia/Kolkata")
+    public void buildLastWeek() {
+        LocalDate weekStart = lastCompletedWeek();
+        buildAndCache(weekStart);
+        log.info("Built work report digest for week of {}", weekStart);
+    }
+
+    /**
+     * Digest of the week containing the given date, restricted to one
+     * department when departmentId is set. Only finished weeks have digests.
+     */
+    public WeeklyDigestDto getDigest(LocalDate week, Long departmentId) {
+        WeeklyDigestDto digest = getDigest(week != null ? weekStart(week) : lastCompletedWeek());
+        if (departmentId == null) {
+            return digest;
+        }
+        String id = departmentId.toString();
+        return WeeklyDigestDto.builder()
+                .weekStart(digest.getWeekStart())
+                .weekEnd(digest.getWeekEnd())
+                .generatedAt(digest.getGeneratedAt())
+                .teams(digest.getTeams().stream().filter(team -> id.equals(team.getDepartmentId())).toList())
+                .build();
+    }
+
+    /** Called when a report dated in the given week is created, changed or deleted. */
+    public void invalidate(LocalDate date) {
+        if (date != null) {
+            version.incrementAndGet();
+            cache.remove(weekStart(date));
+        }
+    }
+
+    private WeeklyDigestDto getDigest(LocalDate weekStart) {
+        if (!weekStart.plusDays(6).isBefore(LocalDate.now(zoneId))) {
+            throw new RuntimeException("Week of " + weekStart + " has not ended yet");
+        }
+        WeeklyDigestDto cached = cache.get(weekStart);
+        return cached != null ? cached : buildAndCache(weekStart);
+    }
+
+    private WeeklyDigestDto buildAndCache(LocalDate weekStart) {
+        long current = version.get();
+        WeeklyDigestDto built = build(weekStart);
+        LocalDate oldestRetained = lastCompletedWeek().minusWeeks(weeksRetained - 1L);
+        // Not cached if a report changed while building; the next request rebuilds
+        if (version.get() == current && !weekStart.isBefore(oldestRetained)) {
+            cache.put(weekStart, built);
+        }
+        cache.headMap(oldestRetained).clear(); // weeks that slid out of the window
+        return built;
+    }
+
+    private WeeklyDigestDto build(LocalDate weekStart) {
+        LocalDate weekEnd = weekStart.plusDays(6);
+        Map<Long, EmployeeReportCount> counts = workReportRepository.countByEmployeeBetween(weekStart, weekEnd)
+                .stream()
+                .collect(Collectors.toMap(EmployeeReportCount::getEmployeeId, Function.identity()));
+
+        Map<Long, List<Long>> members = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        List<Long> userIds = new ArrayList<>();
+        for (UserDepartment user : userRepository.findDepartmentsByStatusNot(UserStatus.INACTIVE)) {
+            members.computeIfAbsent(user.getDepartmentId(), id -> new ArrayList<>()).add(user.getId());
+            userIds.add(user.getId());
+        }
+        Map<Long, String> names = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, u -> u.getFirstName() + " " + u.getLastName()));
+        Map<Long, String> departmentNames = new HashMap<>();
+        for (Department department : departmentRepository.findAllById(
+                members.keySet().stream().filter(Objects::nonNull).toList())) {
+            departmentNames.put(department.getId(), department.getName());
+        }
+
+        List<TeamDigestDto> teams = new ArrayList<>(members.size());
+        members.forEach((departmentId, ids) -> {
+            ids.sort(Comparator.naturalOrder());
+            List<DigestEmployeeDto> employees = new ArrayList<>(ids.size());
+            int contributors = 0;
+            int reports = 0;
+            for (Long id : ids) {
+                EmployeeReportCount count = counts.get(id);
+                if (count != null) {
+                    contributors++;
+                    reports += (int) count.getReports();
+                }
+                employees.add(DigestEmployeeDto.builder()
+                        .employeeId(id.toString())
+                        .employeeName(names.getOrDefault(id, "Unknown"))
+                        .reports(count != null ? (int) count.getReports() : 0)
+                        .daysReported(count != null ? (int) count.getDays() : 0)
+                        .lastReportDate(count != null ? count.getLastDate().toString() : null)
+                        .build());
+            }
+            teams.add(TeamDigestDto.builder()
+                    .departmentId(departmentId != null ? departmentId.toString() : null)
+                    .departmentName(departmentId != null ? departmentNames.getOrDefault(departmentId, "Unknown") : null)
+                    .members(ids.size())
+                    .contributors(contributors)
+                    .reports(reports)
+                    .employees(employees)
+                    .build());
+        });
+
+        return WeeklyDigestDto.builder()
+                .weekStart(weekStart.toString())
+                .weekEnd(weekEnd.toString())
+                .generatedAt(LocalDateTime.now(zoneId).toString())
+                .teams(List.copyOf(teams))
+                .build();
+    }
+
+    private LocalDate lastCompletedWeek() {
+        return weekStart(LocalDate.now(zoneId)).minusWeeks(1);
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
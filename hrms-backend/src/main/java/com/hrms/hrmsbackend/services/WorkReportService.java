@@ -1,35 +1,114 @@
 package com.hrms.hrmsbackend.services;
 
 import com.hrms.hrmsbackend.dtos.CoreDtos.WorkReportDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.WorkReportPageDto;
 import com.hrms.hrmsbackend.models.User;
 import com.hrms.hrmsbackend.models.WorkReport;
 import com.hrms.hrmsbackend.repositories.UserRepository;
 import com.hrms.hrmsbackend.repositories.WorkReportRepository;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class WorkReportService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int LEGACY_WINDOW_DAYS = 90;
+
+    // Newest first, matching the (employee_id, date) and (date, employee_id) indexes
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "date", "id");
+
     private final WorkReportRepository workReportRepository;
     private final UserRepository userRepository;
+    private final WorkReportDigestService digestService;
 
+    /**
+     * Unpaged list kept for clients that predate {@link #queryReports}: the
+     * newest full page from the last {@value #LEGACY_WINDOW_DAYS} days rather
+     * than the whole table.
+     */
     public List<WorkReportDto> getAllReports() {
-        return workReportRepository.findAll().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        LocalDate from = LocalDate.now().minusDays(LEGACY_WINDOW_DAYS);
+        return queryReports(null, from, null, null, MAX_PAGE_SIZE).getItems();
     }
 
     public List<WorkReportDto> getReportsByEmployeeId(Long employeeId) {
-        return workReportRepository.findAll().stream()
-                .filter(report -> report.getEmployeeId().equals(employeeId))
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return mapToDtos(workReportRepository.findByEmployeeId(employeeId));
+    }
+
+    /**
+     * One page of reports, newest first. The cursor is the "date_id" of the
+     * last report on the previous page, so each page is an index range scan
+     * however deep the client has paged.
+     */
+    public WorkReportPageDto queryReports(Long employeeId, LocalDate from, LocalDate to, String cursor,
+            Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDate afterDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = cursor.split("_");
+            try {
+                afterDate = LocalDate.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor: " + cursor);
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        Specification<WorkReport> spec = reportFilters(employeeId, from, to).and(before(afterDate, afterId));
+        List<WorkReport> reports = workReportRepository.findBy(spec,
+                query -> query.sortBy(NEWEST_FIRST).limit(pageSize + 1).all());
+
+        String nextCursor = null;
+        if (reports.size() > pageSize) {
+            reports = reports.subList(0, pageSize);
+            WorkReport last = reports.get(pageSize - 1);
+            nextCursor = last.getDate() + "_" + last.getId();
+        }
+        return WorkReportPageDto.builder()
+                .items(mapToDtos(reports))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Only the filters that are set become predicates, so the planner sees a plain range on the index
+    private static Specification<WorkReport> reportFilters(Long employeeId, LocalDate from, LocalDate to) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (employeeId != null)
+                predicates.add(cb.equal(root.get("employeeId"), employeeId));
+            if (from != null)
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), from));
+            if (to != null)
+                predicates.add(cb.lessThanOrEqualTo(root.get("date"), to));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static Specification<WorkReport> before(LocalDate afterDate, Long afterId) {
+        return (root, query, cb) -> {
+            if (afterDate == null)
+                return null;
+            Path<LocalDate> date = root.get("date");
+            return cb.or(cb.lessThan(date, afterDate),
+                    cb.and(cb.equal(date, afterDate), cb.lessThan(root.get("id"), afterId)));
+        };
     }
 
     public WorkReportDto createReport(WorkReportDto dto) {
@@ -38,33 +117,56 @@ public class WorkReportService {
                 .date(dto.getDate() != null ? LocalDate.parse(dto.getDate()) : LocalDate.now())
                 .content(dto.getContent())
                 .build();
-        return mapToDto(workReportRepository.save(report));
+        WorkReport saved = workReportRepository.save(report);
+        digestService.invalidate(saved.getDate());
+        return mapToDtos(List.of(saved)).get(0);
     }
 
     public WorkReportDto updateReport(Long id, WorkReportDto dto) {
         WorkReport report = workReportRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Report not found"));
+        LocalDate previousDate = report.getDate();
 
         if (dto.getContent() != null)
             report.setContent(dto.getContent());
         if (dto.getDate() != null)
             report.setDate(LocalDate.parse(dto.getDate()));
 
-        return mapToDto(workReportRepository.save(report));
+        WorkReport saved = workReportRepository.save(report);
+        digestService.invalidate(previousDate);
+        digestService.invalidate(saved.getDate());
+        return mapToDtos(List.of(saved)).get(0);
     }
 
     public void deleteReport(Long id) {
-        workReportRepository.deleteById(id);
+        workReportRepository.findById(id).ifPresent(report -> {
+            workReportRepository.delete(report);
+            digestService.invalidate(report.getDate());
+        });
+    }
+
+    private List<WorkReportDto> mapToDtos(List<WorkReport> reports) {
+        Set<Long> employeeIds = new HashSet<>();
+        for (WorkReport report : reports) {
+            employeeIds.add(report.getEmployeeId());
+        }
+        Map<Long, String> names = userRepository.findAllById(employeeIds).stream()
+                .collect(Collectors.toMap(User::getId, u -> u.getFirstName() + " " + u.getLastName()));
+        return reports.stream()
+                .map(report -> mapToDto(report, names))
+                .collect(Collectors.toList());
     }
 
-    private WorkReportDto mapToDto(WorkReport report) {
-        User user = userRepository.findById(report.getEmployeeId())
-                .orElseThrow(() -> new RuntimeException("User not found for employeeId: " + report.getEmployeeId()));
+    private WorkReportDto mapToDto(WorkReport report, Map<Long, String> names) {
+        String employeeName = names.get(report.getEmployeeId());
+        if (employeeName == null) {
+            throw new RuntimeException("User not found for employeeId: " + report.getEmployeeId());
+        }
 
         return WorkReportDto.builder()
                 .id(report.getId().toString())
                 .employeeId(report.getEmployeeId().toString())
-                .employeeName(user.getFirstName() + " " + user.getLastName())
+                .employeeName(employeeName)
                 .date(report.getDate().toString())
                 .content(report.getContent())
                 .build();
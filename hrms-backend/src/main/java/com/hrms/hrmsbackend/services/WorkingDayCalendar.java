@@ -0,0 +1,88 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.models.Holiday;
+import com.hrms.hrmsbackend.repositories.HolidayRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Working-day arithmetic over the company calendar (weekends plus holidays).
+ * Each year is precomputed once into a prefix-sum array where
+ * {@code prefix[d]} is the number of working days from Jan 1 up to and
+ * including day-of-year {@code d}, so counting the working days in any range
+ * is two array reads per year spanned.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkingDayCalendar {
+
+    private final HolidayRepository holidayRepository;
+
+    private final Map<Integer, int[]> prefixByYear = new ConcurrentHashMap<>();
+
+    @Value("${app.calendar.weekend-days:SATURDAY,SUNDAY}")
+    private Set<DayOfWeek> weekendDays;
+
+    public boolean isWorkingDay(LocalDate date) {
+        int[] prefix = prefix(date.getYear());
+        return prefix[date.getDayOfYear()] - prefix[date.getDayOfYear() - 1] == 1;
+    }
+
+    /** Working days in [start, end], both inclusive; 0 when end is before start. */
+    public int workingDaysBetween(LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            return 0;
+        }
+        if (start.getYear() == end.getYear()) {
+            int[] prefix = prefix(start.getYear());
+            return prefix[end.getDayOfYear()] - prefix[start.getDayOfYear() - 1];
+        }
+        int[] first = prefix(start.getYear());
+        int total = first[first.length - 1] - first[start.getDayOfYear() - 1];
+        for (int year = start.getYear() + 1; year < end.getYear(); year++) {
+            int[] full = prefix(year);
+            total += full[full.length - 1];
+        }
+        total += prefix(end.getYear())[end.getDayOfYear()];
+        return total;
+    }
+
+    /** Drops the precomputed year so the next lookup picks up holiday changes. */
+    public void invalidate(int year) {
+        prefixByYear.remove(year);
+    }
+
+    private int[] prefix(int year) {
+        return prefixByYear.computeIfAbsent(year, this::build);
+    }
+
+    private int[] build(int year) {
+        int length = Year.of(year).length();
+        boolean[] nonWorking = new boolean[length + 1];
+        LocalDate date = LocalDate.ofYearDay(year, 1);
+        for (int day = 1; day <= length; day++, date = date.plusDays(1)) {
+            nonWorking[day] = weekendDays.contains(date.getDayOfWeek());
+        }
+        for (Holiday holiday : holidayRepository.findByDateBetweenOrderByDate(LocalDate.ofYearDay(year, 1),
+                LocalDate.ofYearDay(year, length))) {
+            // Optional holidays are taken individually as leave, so the office day still counts
+            if (!"Optional".equalsIgnoreCase(holiday.getType())) {
+                nonWorking[holiday.getDate().getDayOfYear()] = true;
+            }
+        }
+
+        int[] prefix = new int[length + 1];
+        for (int day = 1; day <= length; day++) {
+            prefix[day] = prefix[day - 1] + (nonWorking[day] ? 0 : 1);
+        }
+        return prefix;
+    }
+}
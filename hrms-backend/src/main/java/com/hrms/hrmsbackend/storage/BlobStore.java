@@ -0,0 +1,34 @@
+package com.hrms.hrmsbackend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Content-addressed storage for uploaded file bodies. Writes are two-phase:
+ * {@link #stage} streams the content aside while hashing it, and
+ * {@link #commit} publishes it under its SHA-256, so readers never see a
+ * partially written blob. Reference counting is the caller's concern.
+ */
+public interface BlobStore {
+
+    StagedBlob stage(InputStream content) throws IOException;
+
+    /** Takes over a complete file, hashing it in place; the file is moved, not copied, when possible. */
+    StagedBlob stage(Path file) throws IOException;
+
+    /** Publishes staged content under its hash; if that content is already stored the copy is dropped. */
+    void commit(StagedBlob staged) throws IOException;
+
+    void discard(StagedBlob staged);
+
+    boolean exists(String hash);
+
+    /** Local file holding the blob, used to stream it without copying through the heap. */
+    Path path(String hash);
+
+    /** Directory the blobs are stored under; files uploaded before the store sit next to it. */
+    Path root();
+
+    void delete(String hash) throws IOException;
+}
@@ -0,0 +1,154 @@
+package com.hrms.hrmsbackend.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Local filesystem blob store that spreads blobs over two levels of
+ * hash-prefix directories (ab/cd/abcd...), keeping every directory small no
+ * matter how many files are stored. Content is staged in a temp directory on
+ * the same filesystem and published with an atomic rename.
+ */
+@Component
+@Slf4j
+public class ShardedFileSystemBlobStore implements BlobStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Value("${app.storage.root:uploads/blobs}")
+    private String rootDir;
+
+    private Path root;
+    private Path staging;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(rootDir).toAbsolutePath().normalize();
+        staging = root.resolve("tmp");
+        Files.createDirectories(staging);
+    }
+
+    @Override
+    public StagedBlob stage(InputStream content) throws IOException {
+        Path temp = staging.resolve(UUID.randomUUID() + ".part");
+        MessageDigest digest = sha256();
+        long size = 0;
+        try (ReadableByteChannel source = Channels.newChannel(content);
+                FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE)) {
+            // One pass: each buffer is hashed and written before the next read
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    size += target.write(buffer);
+                }
+                buffer.clear();
+            }
+            target.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return new StagedBlob(HexFormat.of().formatHex(digest.digest()), size, temp);
+    }
+
+    @Override
+    public StagedBlob stage(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        long size = 0;
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            int read;
+            while ((read = source.read(buffer)) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                size += read;
+                buffer.clear();
+            }
+        }
+        Path temp = staging.resolve(UUID.randomUUID() + ".part");
+        try {
+            Files.move(file, temp, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(file, temp); // different filesystem: copy and delete
+        }
+        return new StagedBlob(HexFormat.of().formatHex(digest.digest()), size, temp);
+    }
+
+    @Override
+    public void commit(StagedBlob staged) throws IOException {
+        Path target = path(staged.getHash());
+        if (Files.exists(target)) {
+            discard(staged);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(staged.getStagingPath(), target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            discard(staged); // same content published concurrently
+        }
+    }
+
+    @Override
+    public void discard(StagedBlob staged) {
+        try {
+            Files.deleteIfExists(staged.getStagingPath());
+        } catch (IOException e) {
+            log.warn("Could not delete staged blob {}", staged.getStagingPath(), e);
+        }
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.isRegularFile(path(hash));
+    }
+
+    @Override
+    public Path path(String hash) {
+        if (hash == null || hash.length() < 4 || !hash.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException("Invalid blob hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    @Override
+    public Path root() {
+        return root;
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        Files.deleteIfExists(path(hash));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
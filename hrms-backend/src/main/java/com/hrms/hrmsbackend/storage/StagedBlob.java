@@ -0,0 +1,13 @@
+package com.hrms.hrmsbackend.storage;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+
+/** Content written by {@link BlobStore#stage} but not yet published. */
+@Value
+public class StagedBlob {
+    String hash; // lowercase hex SHA-256
+    long size;
+    Path stagingPath;
+}
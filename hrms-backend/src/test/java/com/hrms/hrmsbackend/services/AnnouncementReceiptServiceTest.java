@@ -0,0 +1,40 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.exceptions.ResourceNotFoundException;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AnnouncementReceiptServiceTest {
+
+    private static final long ANNOUNCEMENT_ID = 990_001L;
+
+    @Autowired
+    private AnnouncementReceiptService receiptService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void markReadOnlyAcceptsExistingUsers() {
+        receiptService.track(ANNOUNCEMENT_ID);
+        Long userId = userRepository.findAll().get(0).getId();
+
+        receiptService.markRead(ANNOUNCEMENT_ID, userId);
+        assertThrows(ResourceNotFoundException.class,
+                () -> receiptService.markRead(ANNOUNCEMENT_ID, (long) Integer.MAX_VALUE));
+        assertThrows(RuntimeException.class, () -> receiptService.markRead(ANNOUNCEMENT_ID, -1L));
+
+        assertTrue(receiptService.hasRead(ANNOUNCEMENT_ID, userId));
+        assertFalse(receiptService.hasRead(ANNOUNCEMENT_ID, -1L));
+        assertEquals(1, receiptService.summary(ANNOUNCEMENT_ID).getReadCount());
+        receiptService.forget(ANNOUNCEMENT_ID);
+    }
+}
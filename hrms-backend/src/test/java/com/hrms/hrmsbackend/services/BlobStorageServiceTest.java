@@ -0,0 +1,103 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.models.StoredBlob;
+import com.hrms.hrmsbackend.repositories.StoredBlobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BlobStorageServiceTest extends StorageTestSupport {
+
+    @Autowired
+    private BlobStorageService blobStorageService;
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentUploadsOfNewContentShareOneBlob() throws Exception {
+        byte[] content = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        CountDownLatch firstRegistered = new CountDownLatch(1);
+
+        // The first upload keeps its transaction open until the second one has started registering
+        CompletableFuture<StoredBlob> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            StoredBlob blob = store(content);
+            firstRegistered.countDown();
+            sleep(300);
+            return blob;
+        }));
+        firstRegistered.await(10, TimeUnit.SECONDS);
+        StoredBlob second = transactionTemplate.execute(status -> store(content));
+
+        String hash = first.get(10, TimeUnit.SECONDS).getHash();
+        assertEquals(hash, second.getHash());
+        assertEquals(2, storedBlobRepository.findByHash(hash).orElseThrow().getRefCount());
+    }
+
+    @Test
+    void releaseCommittingDuringReuploadKeepsFile() throws Exception {
+        byte[] content = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        String hash = transactionTemplate.execute(status -> store(content)).getHash();
+        CountDownLatch released = new CountDownLatch(1);
+
+        // Drops the last reference and commits while the re-upload waits on the deleted row
+        CompletableFuture<Void> release = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    blobStorageService.release(hash);
+                    released.countDown();
+                    sleep(300);
+                }));
+        released.await(10, TimeUnit.SECONDS);
+        transactionTemplate.execute(status -> store(content));
+        release.get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, storedBlobRepository.findByHash(hash).orElseThrow().getRefCount());
+        assertTrue(Files.exists(blobStorageService.pathOf(hash)));
+    }
+
+    @Test
+    void rolledBackUploadLeavesNoBlob() {
+        byte[] content = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+
+        String hash = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return store(content).getHash();
+        });
+
+        assertTrue(storedBlobRepository.findByHash(hash).isEmpty());
+        assertFalse(Files.exists(blobStorageService.pathOf(hash)));
+    }
+
+    private StoredBlob store(byte[] content) {
+        try {
+            return blobStorageService.store(new ByteArrayInputStream(content), "text/plain");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
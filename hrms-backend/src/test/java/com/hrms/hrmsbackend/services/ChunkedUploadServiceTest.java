@@ -0,0 +1,48 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.models.UploadSession;
+import com.hrms.hrmsbackend.models.enums.UploadSessionStatus;
+import com.hrms.hrmsbackend.repositories.UploadSessionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ChunkedUploadServiceTest extends StorageTestSupport {
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Test
+    void purgeKeepsCompletedSessions() {
+        UploadSession active = expiredSession(UploadSessionStatus.ACTIVE);
+        UploadSession completed = expiredSession(UploadSessionStatus.COMPLETED);
+
+        chunkedUploadService.purgeExpired();
+
+        assertFalse(uploadSessionRepository.findByUploadId(active.getUploadId()).isPresent());
+        assertTrue(uploadSessionRepository.findByUploadId(completed.getUploadId()).isPresent());
+    }
+
+    private UploadSession expiredSession(UploadSessionStatus status) {
+        return uploadSessionRepository.save(UploadSession.builder()
+                .uploadId(UUID.randomUUID().toString())
+                .fileName("scan.pdf")
+                .totalSize(1L)
+                .chunkSize(1)
+                .totalChunks(1)
+                .receivedChunks(new byte[0])
+                .status(status)
+                .expiresAt(LocalDateTime.now().minusHours(1))
+                .build());
+    }
+}
@@ -0,0 +1,77 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.exceptions.ForbiddenException;
+import com.hrms.hrmsbackend.exceptions.ResourceNotFoundException;
+import com.hrms.hrmsbackend.models.Document;
+import com.hrms.hrmsbackend.models.StoredBlob;
+import com.hrms.hrmsbackend.models.enums.DocumentType;
+import com.hrms.hrmsbackend.storage.BlobStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class FileDownloadServiceTest extends StorageTestSupport {
+
+    @Autowired
+    private FileDownloadService fileDownloadService;
+
+    @Autowired
+    private BlobStorageService blobStorageService;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void signedLinkServesPrivateDocumentWithoutRequester() {
+        Document doc = transactionTemplate.execute(status -> {
+            StoredBlob blob = store(UUID.randomUUID().toString());
+            return documentService.createFromBlob(blob, 1L, DocumentType.PERSONAL, "payslip.pdf", false);
+        });
+
+        String url = fileDownloadService.documentUrl(doc);
+        String signature = url.substring(url.indexOf("?sig=") + "?sig=".length());
+
+        assertEquals(blobStorageService.pathOf(doc.getContentHash()),
+                fileDownloadService.resolveDocument(doc.getId(), null, signature).getPath());
+        assertThrows(ForbiddenException.class, () -> fileDownloadService.resolveDocument(doc.getId(), null, null));
+        assertThrows(ForbiddenException.class,
+                () -> fileDownloadService.resolveDocument(doc.getId(), null, signature.substring(1)));
+    }
+
+    @Test
+    void legacyUrlsResolveBesideTheBlobStore() {
+        Path uploadRoot = blobStore.root().getParent();
+
+        assertEquals(uploadRoot.resolve("documents").resolve("offer.pdf"),
+                fileDownloadService.localPath("http://localhost:8080/uploads/documents/offer.pdf?v=2"));
+        assertThrows(ResourceNotFoundException.class,
+                () -> fileDownloadService.localPath("http://localhost:8080/uploads/../secrets.txt"));
+    }
+
+    private StoredBlob store(String content) {
+        try {
+            return blobStorageService.store(
+                    new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "application/pdf");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.BulkLeaveDecisionDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.LeaveDecisionResultDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.LeaveDto;
+import com.hrms.hrmsbackend.exceptions.ConflictException;
+import com.hrms.hrmsbackend.models.LeaveRequest;
+import com.hrms.hrmsbackend.models.User;
+import com.hrms.hrmsbackend.models.enums.LeaveStatus;
+import com.hrms.hrmsbackend.models.enums.LeaveType;
+import com.hrms.hrmsbackend.models.enums.Role;
+import com.hrms.hrmsbackend.models.enums.UserStatus;
+import com.hrms.hrmsbackend.repositories.LeaveRepository;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class LeaveServiceBulkDecisionTest {
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long employeeId;
+
+    @BeforeEach
+    void createEmployee() {
+        employeeId = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@test.local")
+                .password("x")
+                .firstName("Bulk")
+                .lastName("Tester")
+                .role(Role.EMPLOYEE)
+                .status(UserStatus.ACTIVE)
+                .build()).getId();
+    }
+
+    @Test
+    void approvesPendingLeavesWithOneVersionBumpAndReportsTheRest() {
+        LeaveRequest first = leave(LeaveStatus.PENDING, 1);
+        LeaveRequest second = leave(LeaveStatus.PENDING, 10);
+        LeaveRequest rejected = leave(LeaveStatus.REJECTED, 20);
+        long missing = Long.MAX_VALUE;
+
+        List<LeaveDecisionResultDto> results = leaveService.decideBulk(BulkLeaveDecisionDto.builder()
+                .ids(List.of(first.getId(), second.getId(), rejected.getId(), missing))
+                .action("approve")
+                .approvedBy(1L)
+                .build());
+
+        assertEquals(List.of("approved", "approved", "already_rejected", "not_found"),
+                results.stream().map(LeaveDecisionResultDto::getOutcome).toList());
+        for (LeaveRequest before : List.of(first, second)) {
+            LeaveRequest after = leaveRepository.findById(before.getId()).orElseThrow();
+            assertEquals(LeaveStatus.APPROVED, after.getStatus());
+            assertEquals(1L, after.getApprovedBy());
+            assertEquals(before.getVersion() + 1, after.getVersion());
+        }
+        LeaveRequest untouched = leaveRepository.findById(rejected.getId()).orElseThrow();
+        assertEquals(rejected.getVersion(), untouched.getVersion());
+    }
+
+    @Test
+    void rejectsOnlyLeavesThatAreStillPending() {
+        LeaveRequest pending = leave(LeaveStatus.PENDING, 30);
+        LeaveRequest approved = leave(LeaveStatus.APPROVED, 40);
+
+        List<LeaveDecisionResultDto> results = leaveService.decideBulk(BulkLeaveDecisionDto.builder()
+                .ids(List.of(pending.getId(), approved.getId()))
+                .action("REJECT")
+                .build());
+
+        assertEquals(List.of("rejected", "already_approved"),
+                results.stream().map(LeaveDecisionResultDto::getOutcome).toList());
+        assertEquals(LeaveStatus.REJECTED, leaveRepository.findById(pending.getId()).orElseThrow().getStatus());
+        assertEquals(LeaveStatus.APPROVED, leaveRepository.findById(approved.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void bulkDecisionInvalidatesStaleIfMatchVersions() {
+        LeaveRequest pending = leave(LeaveStatus.PENDING, 50);
+        Long staleVersion = pending.getVersion();
+
+        leaveService.decideBulk(BulkLeaveDecisionDto.builder()
+                .ids(List.of(pending.getId()))
+                .action("APPROVE")
+                .approvedBy(1L)
+                .build());
+
+        assertThrows(ConflictException.class,
+                () -> leaveService.updateStatus(pending.getId(), "REJECTED", null, staleVersion));
+        LeaveDto updated = leaveService.updateStatus(pending.getId(), "REJECTED", null, staleVersion + 1);
+        assertEquals("rejected", updated.getStatus());
+        assertEquals(staleVersion + 2, updated.getVersion());
+    }
+
+    @Test
+    void requiresIds() {
+        assertThrows(RuntimeException.class, () -> leaveService.decideBulk(BulkLeaveDecisionDto.builder()
+                .action("APPROVE")
+                .build()));
+    }
+
+    private LeaveRequest leave(LeaveStatus status, int offsetDays) {
+        LocalDate start = LocalDate.now().plusDays(offsetDays);
+        return leaveRepository.save(LeaveRequest.builder()
+                .employeeId(employeeId)
+                .type(LeaveType.values()[0])
+                .startDate(start)
+                .endDate(start)
+                .days(1.0)
+                .status(status)
+                .build());
+    }
+}
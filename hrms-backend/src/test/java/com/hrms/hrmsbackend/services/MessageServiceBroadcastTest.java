@@ -0,0 +1,66 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.MessageDto;
+import com.hrms.hrmsbackend.repositories.MessageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class MessageServiceBroadcastTest {
+
+    private static final long SENDER = 880_001L;
+    private static final long READER = 880_002L;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Test
+    void messageWithoutReceiverIsNotABroadcast() {
+        long unreadBefore = messageService.getUnreadCounts(READER).getBroadcasts();
+
+        MessageDto toHr = messageService.sendMessage(message(false));
+        assertFalse(toHr.isBroadcast());
+        assertEquals(unreadBefore, messageService.getUnreadCounts(READER).getBroadcasts());
+
+        // Without a flag there is no per-user cursor: the shared row is marked read, as before
+        Long id = Long.parseLong(toHr.getId());
+        messageService.markAsRead(id, null);
+        assertTrue(messageRepository.findById(id).orElseThrow().isRead());
+    }
+
+    @Test
+    void broadcastReadStateIsPerUser() {
+        MessageDto broadcast = messageService.sendMessage(message(true));
+        Long id = Long.parseLong(broadcast.getId());
+        long unread = messageService.getUnreadCounts(READER).getBroadcasts();
+        assertTrue(unread > 0);
+
+        messageService.markAsRead(id, READER);
+        assertEquals(unread - 1, messageService.getUnreadCounts(READER).getBroadcasts());
+        assertFalse(messageRepository.findById(id).orElseThrow().isRead());
+    }
+
+    @Test
+    void broadcastCannotHaveReceiver() {
+        MessageDto dto = message(true);
+        dto.setReceiverId(Long.toString(READER));
+        assertThrows(RuntimeException.class, () -> messageService.sendMessage(dto));
+    }
+
+    private static MessageDto message(boolean broadcast) {
+        return MessageDto.builder()
+                .senderId(Long.toString(SENDER))
+                .content("Office closed on Friday")
+                .broadcast(broadcast)
+                .build();
+    }
+}
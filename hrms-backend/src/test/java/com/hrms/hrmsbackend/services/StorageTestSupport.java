@@ -0,0 +1,32 @@
+package com.hrms.hrmsbackend.services;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Points blob and chunk storage at a temp directory so tests that write
+ * files never touch the working tree. Subclasses share one context.
+ */
+abstract class StorageTestSupport {
+
+    private static final Path ROOT;
+
+    static {
+        try {
+            ROOT = Files.createTempDirectory("hrms-storage-test");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("app.storage.root", () -> ROOT.resolve("blobs").toString());
+        registry.add("app.uploads.chunked.dir", () -> ROOT.resolve("chunked").toString());
+    }
+}
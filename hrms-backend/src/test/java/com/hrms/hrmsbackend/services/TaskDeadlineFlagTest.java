@@ -0,0 +1,70 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.TaskDto;
+import com.hrms.hrmsbackend.models.Task;
+import com.hrms.hrmsbackend.models.User;
+import com.hrms.hrmsbackend.models.enums.Role;
+import com.hrms.hrmsbackend.models.enums.TaskPriority;
+import com.hrms.hrmsbackend.models.enums.TaskStatus;
+import com.hrms.hrmsbackend.models.enums.UserStatus;
+import com.hrms.hrmsbackend.repositories.TaskRepository;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TaskDeadlineFlagTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void flagFlipDoesNotInvalidateIfMatch() {
+        Long assignee = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@test.local")
+                .password("x")
+                .firstName("Flag")
+                .lastName("Tester")
+                .role(Role.EMPLOYEE)
+                .status(UserStatus.ACTIVE)
+                .build()).getId();
+        Task task = taskRepository.save(Task.builder()
+                .title("Quarterly review")
+                .assignedTo(assignee)
+                .dueDate(LocalDate.of(2030, 5, 1))
+                .priority(TaskPriority.values()[0])
+                .status(TaskStatus.values()[0])
+                .progress(0)
+                .build());
+        Long version = task.getVersion();
+
+        transactionTemplate.executeWithoutResult(status -> taskRepository.markDueSoon(task.getId()));
+        TaskDto edited = taskService.updateTask(task.getId(), TaskDto.builder().title("Annual review").build(),
+                version);
+
+        assertEquals(version + 1, edited.getVersion());
+        assertTrue(taskRepository.findById(task.getId()).orElseThrow().isDueSoon());
+
+        // A new deadline drops the flag for the scheduler to re-derive
+        taskService.updateTask(task.getId(), TaskDto.builder().dueDate("2030-06-01").build(), null);
+        assertFalse(taskRepository.findById(task.getId()).orElseThrow().isDueSoon());
+    }
+}
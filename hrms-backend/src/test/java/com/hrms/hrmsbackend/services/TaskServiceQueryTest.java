@@ -0,0 +1,96 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.TaskDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.TaskPageDto;
+import com.hrms.hrmsbackend.models.Task;
+import com.hrms.hrmsbackend.models.User;
+import com.hrms.hrmsbackend.models.enums.Role;
+import com.hrms.hrmsbackend.models.enums.TaskPriority;
+import com.hrms.hrmsbackend.models.enums.TaskStatus;
+import com.hrms.hrmsbackend.models.enums.UserStatus;
+import com.hrms.hrmsbackend.repositories.TaskRepository;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class TaskServiceQueryTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long assignee;
+
+    @BeforeEach
+    void createAssignee() {
+        assignee = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@test.local")
+                .password("x")
+                .firstName("Query")
+                .lastName("Tester")
+                .role(Role.EMPLOYEE)
+                .status(UserStatus.ACTIVE)
+                .build()).getId();
+    }
+
+    @Test
+    void pagesThroughDatedThenUndatedTasks() {
+        LocalDate day = LocalDate.of(2030, 1, 10);
+        Long undatedFirst = task(null);
+        Long late = task(day.plusDays(1));
+        Long early = task(day);
+        Long earlySameDay = task(day);
+        Long undatedSecond = task(null);
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TaskPageDto page = taskService.queryTasks(assignee, null, null, null, null, cursor, 2);
+            page.getItems().stream().map(TaskDto::getId).forEach(seen::add);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of(early, earlySameDay, late, undatedFirst, undatedSecond).stream()
+                .map(String::valueOf).toList(), seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void dueDateRangeExcludesUndatedTasks() {
+        LocalDate day = LocalDate.of(2030, 2, 1);
+        Long dated = task(day);
+        task(null);
+
+        TaskPageDto page = taskService.queryTasks(assignee, "todo", null, day, day, null, 10);
+
+        assertEquals(List.of(String.valueOf(dated)), page.getItems().stream().map(TaskDto::getId).toList());
+    }
+
+    private Long task(LocalDate dueDate) {
+        return taskRepository.save(Task.builder()
+                .title("t")
+                .assignedTo(assignee)
+                .dueDate(dueDate)
+                .priority(TaskPriority.values()[0])
+                .status(TaskStatus.values()[0])
+                .progress(0)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,30 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.TagCountDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TaskTagIndexTest {
+
+    private final TaskTagIndex index = new TaskTagIndex(null);
+
+    @Test
+    void keepsIdsBeyondIntRangeDistinct() {
+        long large = Integer.MAX_VALUE + 6L; // would wrap to a negative int
+        index.put(5L, List.of("Urgent"));
+        index.put(large, List.of("urgent", "backend"));
+        index.put(large + 1, List.of("backend"));
+
+        assertEquals(List.of(5L, large), index.match(List.of("urgent"), true));
+        assertEquals(List.of(large), index.match(List.of("urgent", "backend"), true));
+        assertEquals(List.of(5L, large, large + 1), index.match(List.of("urgent", "backend"), false));
+
+        index.remove(large);
+        assertEquals(List.of(5L), index.match(List.of("urgent"), true));
+        assertEquals(List.of(TagCountDto.builder().tag("backend").count(1).build(),
+                TagCountDto.builder().tag("urgent").count(1).build()), index.tagCounts());
+    }
+}
@@ -0,0 +1,104 @@
+package com.hrms.hrmsbackend.services;
+
+import com.hrms.hrmsbackend.dtos.CoreDtos.WorkReportDto;
+import com.hrms.hrmsbackend.dtos.CoreDtos.WorkReportPageDto;
+import com.hrms.hrmsbackend.models.User;
+import com.hrms.hrmsbackend.models.WorkReport;
+import com.hrms.hrmsbackend.models.enums.Role;
+import com.hrms.hrmsbackend.models.enums.UserStatus;
+import com.hrms.hrmsbackend.repositories.UserRepository;
+import com.hrms.hrmsbackend.repositories.WorkReportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class WorkReportServiceQueryTest {
+
+    @Autowired
+    private WorkReportService workReportService;
+
+    @Autowired
+    private WorkReportRepository workReportRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long employee;
+    private Long colleague;
+
+    @BeforeEach
+    void createEmployees() {
+        employee = user();
+        colleague = user();
+    }
+
+    @Test
+    void pagesNewestFirstWithinFilters() {
+        LocalDate day = LocalDate.of(2031, 3, 10);
+        Long outside = report(day.minusDays(5));
+        Long older = report(day);
+        Long sameDayFirst = report(day.plusDays(1));
+        Long sameDaySecond = report(day.plusDays(1));
+        Long newest = report(day.plusDays(2));
+        report(colleague, day.plusDays(1));
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            WorkReportPageDto page = workReportService.queryReports(employee, day, day.plusDays(2), cursor, 2);
+            page.getItems().stream().map(WorkReportDto::getId).forEach(seen::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(newest, sameDaySecond, sameDayFirst, older).stream().map(String::valueOf).toList(),
+                seen);
+        assertEquals(5, workReportService.queryReports(employee, null, null, null, 10).getItems().size());
+        assertEquals(outside.toString(),
+                workReportService.queryReports(employee, null, day.minusDays(1), null, 10).getItems().get(0).getId());
+    }
+
+    @Test
+    void legacyListSkipsOldReports() {
+        Long recent = report(LocalDate.now());
+        Long old = report(LocalDate.now().minusYears(1));
+
+        List<String> ids = workReportService.getAllReports().stream().map(WorkReportDto::getId).toList();
+
+        assertTrue(ids.contains(recent.toString()));
+        assertFalse(ids.contains(old.toString()));
+    }
+
+    private Long report(LocalDate date) {
+        return report(employee, date);
+    }
+
+    private Long user() {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@test.local")
+                .password("x")
+                .firstName("Report")
+                .lastName("Writer")
+                .role(Role.EMPLOYEE)
+                .status(UserStatus.ACTIVE)
+                .build()).getId();
+    }
+
+    private Long report(Long employeeId, LocalDate date) {
+        return workReportRepository.save(WorkReport.builder()
+                .employeeId(employeeId)
+                .date(date)
+                .content("Worked on reports")
+                .build()).getId();
+    }
+}